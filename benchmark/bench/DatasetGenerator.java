@@ -0,0 +1,74 @@
+package bench;
+
+import model.Expense;
+import model.Project;
+import model.Schedule;
+import service.DataStore;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크용 결정적 데이터 생성기. 같은 (seed, 크기)면 항상 같은 데이터를 만든다.
+ * 소비 n건, 프로젝트 n/10건, 일정 n/10건.
+ */
+public final class DatasetGenerator {
+
+    private static final String[] SYLLABLES = {"커", "미", "션", "굿", "즈", "일", "러", "스", "트", "포",
+            "트", "폴", "리", "오", "작", "업", "디", "자", "인", "캐", "릭", "터", "배", "경", "원", "화"};
+    private static final String[] CATEGORIES = {"굿즈", "재료", "커미션", "구독", "교통", "식비", "장비", "전시"};
+    private static final String[] OWNERS = {"이비", "듀", "라드", "차은", "모니", "하루", "유키", "제로"};
+    private static final String[] STATUSES = {"진행중", "완료", "보류"};
+    private static final LocalDate BASE = LocalDate.of(2016, 1, 1);
+    private static final int DAY_SPAN = 365 * 10;
+
+    private final SplittableRandom rnd;
+
+    public DatasetGenerator(long seed) { this.rnd = new SplittableRandom(seed); }
+
+    public DataStore populate(int expenses, boolean columnar) {
+        DataStore store = new DataStore(columnar);
+        store.beginBulkLoad();
+        // 저장소는 구매월 순서로 끼워 넣으므로 한 건씩 넣으면 중간 삽입이 반복된다: 모아서 한 번에
+        List<Expense> rows = new ArrayList<>(expenses);
+        for (int i = 0; i < expenses; i++) rows.add(expense());
+        store.addExpenses(rows);
+        for (int i = 0; i < Math.max(expenses / 10, 1); i++) store.addProject(project());
+        for (int i = 0; i < Math.max(expenses / 10, 1); i++) {
+            Schedule s = schedule(i);
+            store.putSchedule(s.getName(), s);
+        }
+        store.endBulkLoad();
+        return store;
+    }
+
+    public Expense expense() {
+        return new Expense(title(), "등록", 1000 + rnd.nextInt(200_000), pick(CATEGORIES), day());
+    }
+
+    public Project project() {
+        LocalDate start = day();
+        return new Project(title(), pick(STATUSES), pick(OWNERS), start, start.plusDays(1 + rnd.nextInt(90)));
+    }
+
+    public Schedule schedule(int i) {
+        return new Schedule(title() + "#" + i, day(), "메모 " + i);
+    }
+
+    public String keyword() {
+        return SYLLABLES[rnd.nextInt(SYLLABLES.length)] + SYLLABLES[rnd.nextInt(SYLLABLES.length)];
+    }
+
+    private String title() {
+        int len = 2 + rnd.nextInt(5);
+        StringBuilder sb = new StringBuilder(len);
+        for (int i = 0; i < len; i++) sb.append(SYLLABLES[rnd.nextInt(SYLLABLES.length)]);
+        return sb.toString();
+    }
+
+    private LocalDate day() { return BASE.plusDays(rnd.nextInt(DAY_SPAN)); }
+
+    private String pick(String[] values) { return values[rnd.nextInt(values.length)]; }
+}
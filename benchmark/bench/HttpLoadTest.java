@@ -0,0 +1,147 @@
+package bench;
+
+import main.HeadlessServer;
+import service.DataStore;
+import util.FileManager;
+import util.LatencyHistogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HeadlessServer 부하 테스트. 가상 스레드 클라이언트 여러 개가 동시에 요청을 보내고 처리량/지연 시간을 잰다.
+ *
+ * 사용법: java -cp bin bench.HttpLoadTest [--clients=100,1000,5000] [--seconds=10] [--size=100000]
+ *        [--writes=5] [--url=http://localhost:8080]
+ *
+ * --url이 없으면 임시 디렉터리에 --size 크기 데이터로 서버를 같은 프로세스에 띄운다.
+ * 요청 섞기: --writes% 소비 추가, 나머지는 월 리포트 / 다가오는 일정 / 검색 / 묶음 조회(batch)를 번갈아.
+ * 결과는 CSV(clients,seconds,requests,failures,throughput_per_sec,mean_us,p50_us,p90_us,p99_us,max_us).
+ */
+public final class HttpLoadTest {
+
+    private static final String HEADER = "clients,seconds,requests,failures,throughput_per_sec,mean_us,p50_us,p90_us,p99_us,max_us";
+    private static final long SEED = 20251103L;
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = parseArgs(args);
+        int[] clients = Arrays.stream(opt.getOrDefault("clients", "100,1000,5000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        int seconds = Integer.parseInt(opt.getOrDefault("seconds", "10"));
+        int writes = Integer.parseInt(opt.getOrDefault("writes", "5"));
+
+        HeadlessServer server = null;
+        Path dir = null;
+        String base = opt.get("url");
+        if (base == null) {
+            DatasetGenerator gen = new DatasetGenerator(SEED);
+            DataStore store = gen.populate(Integer.parseInt(opt.getOrDefault("size", "100000")), false);
+            dir = Files.createTempDirectory("cwm-load");
+            server = new HeadlessServer(store, new FileManager(store, dir));
+            server.start(0);
+            base = "http://localhost:" + server.port();
+        }
+
+        System.out.println(HEADER);
+        try {
+            for (int c : clients) System.out.println(run(base, c, seconds, writes));
+        } finally {
+            if (server != null) server.stop();
+            if (dir != null) deleteRecursively(dir);
+        }
+    }
+
+    private static String run(String base, int clients, int seconds, int writesPercent) throws InterruptedException {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // h2c 업그레이드 시도 없이 바로 1.1
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder failures = new LongAdder();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+
+        long t0 = System.nanoTime();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                int id = i;
+                pool.submit(() -> {
+                    SplittableRandom rnd = new SplittableRandom(SEED + id);
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest req = nextRequest(base, rnd, writesPercent, id);
+                        long s = System.nanoTime();
+                        try {
+                            HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+                            if (res.statusCode() >= 400) failures.increment();
+                        } catch (IOException e) {
+                            failures.increment();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        latency.record(System.nanoTime() - s);
+                    }
+                });
+            }
+        }
+        double took = (System.nanoTime() - t0) / 1e9;
+        long n = latency.count();
+        return String.join(",", String.valueOf(clients), String.valueOf(seconds), String.valueOf(n),
+                String.valueOf(failures.sum()), String.format(Locale.ROOT, "%.1f", n / took),
+                String.valueOf(latency.meanNanos() / 1000), String.valueOf(latency.percentileNanos(0.50) / 1000),
+                String.valueOf(latency.percentileNanos(0.90) / 1000), String.valueOf(latency.percentileNanos(0.99) / 1000),
+                String.valueOf(latency.maxNanos() / 1000));
+    }
+
+    private static HttpRequest nextRequest(String base, SplittableRandom rnd, int writesPercent, int client) {
+        if (rnd.nextInt(100) < writesPercent) {
+            String form = "title=load" + client + "&category=%EC%9E%AC%EB%A3%8C&price=" + rnd.nextInt(100_000)
+                    + "&date=2025-11-0" + (1 + rnd.nextInt(9));
+            return HttpRequest.newBuilder(URI.create(base + "/api/expenses"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form)).build();
+        }
+        return switch (rnd.nextInt(4)) {
+            case 0 -> get(base + "/api/report?ym=2020-06");
+            case 1 -> get(base + "/api/schedules?upcoming=20");
+            case 2 -> get(base + "/api/projects?q=%EC%BB%A4%EB%AF%B8");
+            default -> HttpRequest.newBuilder(URI.create(base + "/api/batch"))
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "/api/report?ym=2020-01\n/api/report?ym=2020-02\n/api/schedules?ym=2020-03\n/api/stats"))
+                    .build();
+        };
+    }
+
+    private static HttpRequest get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).GET().build();
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) m.put(a.substring(2), "true");
+            else m.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return m;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try { Files.deleteIfExists(p); }
+                catch (IOException e) { throw new UncheckedIOException(e); }
+            });
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package bench;
+
+import service.*;
+import util.BulkImporter;
+import util.FileManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * 서비스/저장 경로 벤치마크 (외부 의존성 없이 실행하는 JMH 스타일 하니스).
+ *
+ * 사용법: java -cp bin bench.ServiceBenchmarks [--sizes=1000,10000,100000,1000000] [--warmup=3]
+ *        [--iterations=5] [--columnar] [--only=expense.,report.] [--out=bench_results.csv]
+ *
+ * 결과는 CSV(benchmark,size,mode,iterations,mean_ns,p50_ns,min_ns,max_ns)로 표준 출력과 --out 파일에 쓴다.
+ * 10M 건은 --sizes=10000000 과 충분한 힙(-Xmx8g 이상)을 주고 돌린다.
+ */
+public final class ServiceBenchmarks {
+
+    private static final String HEADER = "benchmark,size,mode,iterations,mean_ns,p50_ns,min_ns,max_ns";
+    private static final long SEED = 20251103L;
+
+    private static volatile Object sink; // 결과를 버리지 않게 해서 JIT가 호출을 없애지 못하게 한다
+
+    private final int warmup, iterations;
+    private final boolean columnar;
+    private final List<String> only;
+    private final List<String> rows = new ArrayList<>();
+
+    private ServiceBenchmarks(int warmup, int iterations, boolean columnar, List<String> only) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        this.columnar = columnar;
+        this.only = only;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> opt = parseArgs(args);
+        int[] sizes = Arrays.stream(opt.getOrDefault("sizes", "1000,10000,100000,1000000").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+        List<String> only = opt.containsKey("only") ? List.of(opt.get("only").split(",")) : List.of();
+        ServiceBenchmarks b = new ServiceBenchmarks(
+                Integer.parseInt(opt.getOrDefault("warmup", "3")),
+                Integer.parseInt(opt.getOrDefault("iterations", "5")),
+                opt.containsKey("columnar"), only);
+
+        System.out.println(HEADER);
+        for (int size : sizes) b.runAll(size);
+
+        if (opt.containsKey("out")) {
+            Path out = Paths.get(opt.get("out"));
+            List<String> lines = new ArrayList<>();
+            lines.add(HEADER);
+            lines.addAll(b.rows);
+            Files.write(out, lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    private void runAll(int size) throws IOException {
+        DatasetGenerator gen = new DatasetGenerator(SEED);
+        DataStore store = gen.populate(size, columnar);
+        ExpenseService expenses = new ExpenseService(store);
+        ProjectService projects = new ProjectService(store);
+        ScheduleService schedules = new ScheduleService(store);
+        ReportService reports = new ReportService(store);
+        String kw = gen.keyword();
+        YearMonth ym = YearMonth.of(2020, 6);
+
+        run("expense.sortByDate", size, expenses::getExpensesSortedByDate);
+        run("expense.sortByPriceDesc", size, expenses::getExpensesSortedByPriceDesc);
+        run("expense.top20ByPrice", size, () -> List.copyOf(expenses.topByPrice(20)));
+        run("expense.between1m", size, () -> List.copyOf(expenses.between(LocalDate.of(2020, 6, 1), LocalDate.of(2020, 6, 30))));
+        run("expense.searchByTitle", size, () -> expenses.searchByTitle(kw));
+        run("expense.searchByCategory", size, () -> expenses.searchByCategory("커미션"));
+        run("project.search", size, () -> projects.search(kw));
+        run("project.deadlineClose", size, () -> projects.deadlineClose(14));
+        run("schedule.upcoming", size, () -> schedules.upcoming(20));
+        run("report.buildMonthlySummary", size, () -> reports.buildMonthlySummary(ym));
+        run("report.buildRangeReport10y", size, () -> reports.buildRangeReport(YearMonth.of(2016, 1), YearMonth.of(2025, 12)));
+
+        if (!selected("file.")) return;
+        Path dir = Files.createTempDirectory("cwm-bench");
+        try {
+            FileManager fm = new FileManager(store, dir);
+            // 저장은 바뀐 달만 다시 쓰므로, 전체 저장은 매번 모든 달을 바뀐 달로 넣은 이미지로 잰다
+            FileManager.Image full = fullImage(store);
+            run("file.saveAll", size, () -> { fm.write(full); return dir; });
+            fm.saveAll(); // 이후 바뀐 달 없음
+            run("file.saveAllUnchanged", size, () -> { fm.saveAll(); return dir; }); // 조각 목록만
+            run("file.exportMonthlySummaries10y", size, () ->
+                    reports.exportMonthlySummaries(YearMonth.of(2016, 1), YearMonth.of(2025, 12), dir.resolve("reports")));
+            run("file.loadAll", size, () -> { // 시작 + 모든 달 읽기
+                DataStore loaded = new DataStore(columnar);
+                new FileManager(loaded, dir).loadAll();
+                loaded.loadAllExpenseMonths();
+                return loaded;
+            });
+            run("file.loadAllManifestOnly", size, () -> { // 시작만 (소비 행은 질의가 닿을 때 읽는다)
+                DataStore loaded = new DataStore(columnar);
+                new FileManager(loaded, dir).loadAll();
+                return loaded;
+            });
+            if (selected("file.importExpensesCsv")) {
+                byte[] csv = expensesCsv(store);
+                run("file.importExpensesCsv", size, () -> new BulkImporter(new DataStore(columnar))
+                        .importExpenses(new ByteArrayInputStream(csv), BulkImporter.Format.CSV, true));
+            }
+        } finally {
+            deleteRecursively(dir);
+        }
+    }
+
+    /** 전체 저장 벤치마크용: 모든 달을 바뀐 달로 넣는다. stamps가 비어 있어 써도 저장소의 "바뀜" 표시를 지우지 않는다. */
+    private static FileManager.Image fullImage(DataStore store) {
+        store.loadAllExpenseMonths();
+        StoreSnapshot snap = store.snapshot();
+        Map<YearMonth, List<model.Expense>> byMonth = new TreeMap<>();
+        for (model.Expense e : snap.expenses())
+            byMonth.computeIfAbsent(YearMonth.from(e.getPurchaseDate()), k -> new ArrayList<>()).add(e);
+        return new FileManager.Image(new DataStore.ExpenseShardImage(snap.expenseShards().months(), byMonth, Map.of()),
+                snap.projects(), snap.schedules());
+    }
+
+    /** 가져오기 벤치마크용: 저장소의 소비 내역을 헤더가 있는 CSV로 */
+    private static byte[] expensesCsv(DataStore store) {
+        StringBuilder sb = new StringBuilder("제목,분류,금액,구매일\n");
+        for (model.Expense e : store.getExpenses()) {
+            sb.append('"').append(e.getTitle().replace("\"", "\"\"")).append("\",")
+              .append(e.getCategory()).append(',').append(e.getPrice()).append(',')
+              .append(e.getPurchaseDate()).append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void run(String name, int size, Supplier<?> op) {
+        if (!selected(name)) return;
+        for (int i = 0; i < warmup; i++) sink = op.get();
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long t0 = System.nanoTime();
+            sink = op.get();
+            samples[i] = System.nanoTime() - t0;
+        }
+        Arrays.sort(samples);
+        long sum = 0;
+        for (long s : samples) sum += s;
+        String row = String.join(",", name, String.valueOf(size), columnar ? "columnar" : "objects",
+                String.valueOf(iterations), String.valueOf(sum / samples.length),
+                String.valueOf(samples[samples.length / 2]), String.valueOf(samples[0]),
+                String.valueOf(samples[samples.length - 1]));
+        rows.add(row);
+        System.out.println(row);
+    }
+
+    private boolean selected(String name) {
+        if (only.isEmpty()) return true;
+        for (String prefix : only) if (name.startsWith(prefix) || prefix.startsWith(name)) return true;
+        return false;
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> m = new HashMap<>();
+        for (String a : args) {
+            if (!a.startsWith("--")) continue;
+            int eq = a.indexOf('=');
+            if (eq < 0) m.put(a.substring(2), "true");
+            else m.put(a.substring(2, eq), a.substring(eq + 1));
+        }
+        return m;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (var paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try { Files.deleteIfExists(p); }
+                catch (IOException e) { throw new UncheckedIOException(e); }
+            });
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package main;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import exceptions.NotFoundException;
+import exceptions.StorageException;
+import exceptions.ValidationException;
+import metrics.Metrics;
+import metrics.StartupTimeline;
+import model.Expense;
+import model.Project;
+import model.Schedule;
+import model.ScheduleOccurrence;
+import service.*;
+import util.BulkImporter;
+import util.FileManager;
+import util.LatencyHistogram;
+import util.PersistenceService;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 화면 없이 서비스들을 로컬 HTTP/JSON으로 여는 진입점. 여러 사람이 한 인스턴스를 같이 쓴다.
+ * 요청마다 가상 스레드 하나. 읽기는 DataStore 잠금 아래 동시에, 쓰기(변경 + 저널 기록)는 순서를 지키려고 한 줄로 처리한다.
+ *
+ * 실행: java -cp bin main.HeadlessServer [포트(기본 8080)]
+ *
+ * GET  /api/expenses?sort=date|price&title=..&category=..   POST /api/expenses (title, category, price, date)
+ *      /api/expenses?top=K | from=..&to=.. | minPrice=..&maxPrice=..  (비싼 순 K개 / 구매일 구간 / 금액 구간)
+ * POST /api/expenses/delete (index)
+ * GET  /api/projects?q=..&deadlineDays=..                   POST /api/projects (title, owner, start, due)
+ * POST /api/projects/status (index, status)
+ * GET  /api/schedules?ym=yyyy-MM | upcoming=N               POST /api/schedules (name, date, memo, repeat)
+ * POST /api/schedules/delete (name)
+ * GET  /api/report?ym=yyyy-MM
+ * POST /api/batch   본문 한 줄에 GET 경로 하나 → 결과 배열 (대량 조회를 한 번에)
+ * POST /api/save    GET /api/stats (처리량/지연 시간)
+ * POST /api/import?kind=expenses|projects|schedules&format=csv|tsv&header=true   본문 = 파일 내용 (끝나면 전체 저장 한 번)
+ * 쓰기 요청의 인자는 쿼리 문자열이나 form(application/x-www-form-urlencoded) 본문으로 받는다. index는 0부터.
+ */
+public class HeadlessServer {
+
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 4096;        // 동시 접속 수천 개를 받아 둘 대기열
+    private static final int MAX_BATCH = 1000;
+    private static final long STATS_EVERY_SEC = 10;
+    private static final int MAX_IMPORT_ERRORS = 100; // 응답에 담을 잘못된 줄 수
+
+    private final DataStore store;
+    private final ExpenseService expenseService;
+    private final ProjectService projectService;
+    private final ScheduleService scheduleService;
+    private final ReportService reportService;
+    private final PersistenceService persistence;
+    private final BulkImporter importer;
+
+    // 변경 순서 = 저널 순서가 되도록 쓰기는 한 번에 하나 (가상 스레드를 고정시키지 않게 synchronized 대신 ReentrantLock)
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LatencyHistogram windowLatency = new LatencyHistogram();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final long startedAt = System.nanoTime();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private ScheduledExecutorService reporter;
+
+    public HeadlessServer(DataStore store, FileManager fileManager) {
+        this.store = store;
+        this.expenseService = new ExpenseService(store);
+        this.projectService = new ProjectService(store);
+        this.scheduleService = new ScheduleService(store);
+        this.reportService = new ReportService(store);
+        this.importer = new BulkImporter(store);
+        this.persistence = new PersistenceService(fileManager,
+                err -> System.err.println("[server] 저장 실패: " + err.getMessage()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        StartupTimeline.mark("main");
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Integer.getInteger("cwm.port", DEFAULT_PORT);
+        DataStore store = new DataStore(Boolean.getBoolean("cwm.columnarExpenses"));
+        FileManager fileManager = new FileManager(store);
+        fileManager.loadAll();
+        StartupTimeline.mark("loaded");
+        for (String w : fileManager.getLoadWarnings()) System.err.println("⚠️ " + w);
+        store.publishMetrics();
+        Metrics.startDumpFromProperty(Paths.get("data"));
+
+        HeadlessServer server = new HeadlessServer(store, fileManager);
+        server.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> { server.stop(); Metrics.stopDump(); }, "server-shutdown"));
+        StartupTimeline.mark("listening");
+        System.out.print(StartupTimeline.summary());
+        System.out.println("🌐 http://localhost:" + server.port() + "/api/ 에서 대기 중 (Ctrl+C로 저장 후 종료)");
+    }
+
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+        server.start();
+        Metrics.gauge("server.requests", requests::sum);
+        Metrics.gauge("server.failures", failures::sum);
+        Metrics.gauge("server.p99_us", () -> latency.percentileNanos(0.99) / 1000);
+
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "server-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(this::printWindowStats, STATS_EVERY_SEC, STATS_EVERY_SEC, TimeUnit.SECONDS);
+    }
+
+    public int port() { return server.getAddress().getPort(); }
+
+    /** 요청을 더 받지 않고, 남은 변경을 저장한 뒤 멈춘다. */
+    public void stop() {
+        if (server == null) return;
+        server.stop(1);
+        reporter.shutdownNow();
+        executor.close();
+        persistence.close();
+        server = null;
+    }
+
+    /* ================= 요청 처리 ================= */
+    private record Response(int status, String json) {}
+
+    private void handle(HttpExchange ex) throws IOException {
+        long t0 = System.nanoTime();
+        Response r;
+        try {
+            Map<String, String> params = parseQuery(ex.getRequestURI().getRawQuery());
+            byte[] raw = ex.getRequestBody().readAllBytes();
+            String method = ex.getRequestMethod();
+            String path = ex.getRequestURI().getPath();
+            String body = new String(raw, StandardCharsets.UTF_8);
+            if (method.equals("POST") && path.equals("/api/batch")) r = batch(body);
+            else if (method.equals("POST") && path.equals("/api/import")) r = importRows(params, raw);
+            else {
+                if (method.equals("POST")) params.putAll(parseQuery(body));
+                r = dispatch(method, path, params);
+            }
+        } catch (ValidationException e) {
+            r = error(400, e.getMessage());
+        } catch (NotFoundException e) {
+            r = error(404, e.getMessage());
+        } catch (StorageException e) {
+            r = error(500, e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            r = error(500, "예상치 못한 오류가 발생했습니다.");
+        }
+
+        byte[] out = r.json().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(r.status(), out.length);
+        try (OutputStream os = ex.getResponseBody()) { os.write(out); }
+
+        long took = System.nanoTime() - t0;
+        latency.record(took);
+        windowLatency.record(took);
+        requests.increment();
+        if (r.status() >= 400) failures.increment();
+    }
+
+    private Response dispatch(String method, String path, Map<String, String> p) {
+        return switch (method + " " + path) {
+            case "GET /api/expenses" -> ok(expenses(p));
+            case "POST /api/expenses" -> write(() -> {
+                Expense e = expenseService.addExpense(p.get("title"), p.get("category"),
+                        parseInt(p.get("price"), "금액"), parseDate(p.get("date")));
+                persistence.record(FileManager.expenseAdded(e));
+                return expenseJson(e);
+            });
+            case "POST /api/expenses/delete" -> write(() -> {
+                long id = p.containsKey("id") ? parseLong(p.get("id"), "id")
+                        : store.getExpense(parseInt(p.get("index"), "번호")).getId(); // 예전 방식(번호)도 받는다
+                Expense e = expenseService.removeExpense(id);
+                persistence.record(FileManager.expenseRemoved(id));
+                return expenseJson(e);
+            });
+            case "GET /api/projects" -> ok(projects(p));
+            case "POST /api/projects" -> write(() -> {
+                Project prj = projectService.addProject(p.get("title"), p.get("owner"),
+                        parseDate(p.get("start")), parseDate(p.get("due")));
+                persistence.record(FileManager.projectAdded(prj));
+                return projectJson(prj);
+            });
+            case "POST /api/projects/status" -> write(() -> {
+                long id = p.containsKey("id") ? parseLong(p.get("id"), "id")
+                        : store.getProject(parseInt(p.get("index"), "번호")).getId();
+                Project prj = projectService.changeStatus(id, p.get("status"));
+                persistence.record(FileManager.projectStatus(id, p.get("status")));
+                return projectJson(prj);
+            });
+            case "GET /api/schedules" -> ok(schedules(p));
+            case "POST /api/schedules" -> write(() -> {
+                Schedule s = scheduleService.addSchedule(p.get("name"), parseDate(p.get("date")), p.get("memo"),
+                        ScheduleService.parseRecurrence(p.get("repeat")));
+                persistence.record(FileManager.schedulePut(s));
+                return scheduleJson(s, scheduleService.today());
+            });
+            case "POST /api/schedules/delete" -> write(() -> {
+                Schedule s = scheduleService.removeSchedule(p.get("name"));
+                persistence.record(FileManager.scheduleRemoved(s.getName()));
+                return scheduleJson(s, scheduleService.today());
+            });
+            case "GET /api/report" -> ok(obj("ym", str(parseYm(p.get("ym")).toString()),
+                    "text", str(reportService.buildMonthlySummary(parseYm(p.get("ym"))))));
+            case "POST /api/save" -> write(() -> {
+                persistence.requestSave().join();
+                return obj("saved", "true");
+            });
+            case "GET /api/stats" -> ok(stats());
+            default -> error(404, "없는 경로입니다: " + method + " " + path);
+        };
+    }
+
+    /** 본문 한 줄에 GET 경로 하나. 각 결과를 순서대로 [{path,status,body}] 로 돌려준다. */
+    private Response batch(String body) {
+        List<String> paths = body.lines().map(String::trim).filter(l -> !l.isEmpty()).toList();
+        if (paths.size() > MAX_BATCH) throw new ValidationException("한 번에 " + MAX_BATCH + "개까지만 조회할 수 있습니다.");
+        StringBuilder sb = new StringBuilder("[");
+        for (String line : paths) {
+            int q = line.indexOf('?');
+            String path = q < 0 ? line : line.substring(0, q);
+            Response r;
+            try {
+                r = dispatch("GET", path, parseQuery(q < 0 ? null : line.substring(q + 1)));
+            } catch (ValidationException e) {
+                r = error(400, e.getMessage());
+            } catch (NotFoundException e) {
+                r = error(404, e.getMessage());
+            }
+            if (sb.length() > 1) sb.append(',');
+            sb.append(obj("path", str(line), "status", String.valueOf(r.status()), "body", r.json()));
+        }
+        return ok(sb.append(']').toString());
+    }
+
+    /** 본문 전체를 가져온다. 다른 쓰기와 저널 순서가 섞이지 않게 쓰기 잠금 안에서 추가하고 전체 저장을 예약한다. */
+    private Response importRows(Map<String, String> p, byte[] raw) {
+        BulkImporter.Format format = switch (p.getOrDefault("format", "csv")) {
+            case "csv" -> BulkImporter.Format.CSV;
+            case "tsv" -> BulkImporter.Format.TSV;
+            default -> throw new ValidationException("format은 csv 또는 tsv입니다.");
+        };
+        boolean header = Boolean.parseBoolean(p.get("header"));
+        return write(() -> {
+            InputStream in = new ByteArrayInputStream(raw);
+            BulkImporter.Report<?> r = switch (p.getOrDefault("kind", "")) {
+                case "expenses" -> importer.importExpenses(in, format, header);
+                case "projects" -> importer.importProjects(in, format, header);
+                case "schedules" -> importer.importSchedules(in, format, header);
+                default -> throw new ValidationException("kind는 expenses, projects, schedules 중 하나입니다.");
+            };
+            if (r.imported() > 0) persistence.requestSave();
+            return obj("kind", str(r.kind()), "imported", String.valueOf(r.imported()),
+                    "errorCount", String.valueOf(r.errors().size()),
+                    "errors", array(r.errors().subList(0, Math.min(r.errors().size(), MAX_IMPORT_ERRORS)),
+                            e -> obj("line", String.valueOf(e.line()), "message", str(e.message()))));
+        });
+    }
+
+    private Response write(java.util.function.Supplier<String> mutation) {
+        writeLock.lock();
+        try { return ok(mutation.get()); }
+        finally { writeLock.unlock(); }
+    }
+
+    /* ================= 조회 ================= */
+    private String expenses(Map<String, String> p) {
+        List<Expense> list;
+        if (p.containsKey("title")) list = expenseService.searchByTitle(p.get("title"));
+        else if (p.containsKey("category")) list = expenseService.searchByCategory(p.get("category"));
+        else if (p.containsKey("top")) list = expenseService.topByPrice(parseInt(p.get("top"), "개수"));
+        else if (p.containsKey("from") || p.containsKey("to"))
+            list = expenseService.between(parseDate(p.get("from")), parseDate(p.get("to")));
+        else if (p.containsKey("minPrice") || p.containsKey("maxPrice"))
+            list = expenseService.pricedBetween(parseInt(p.getOrDefault("minPrice", "0"), "최소 금액"),
+                    parseInt(p.getOrDefault("maxPrice", String.valueOf(Integer.MAX_VALUE)), "최대 금액"));
+        else list = switch (p.getOrDefault("sort", "")) {
+            case "date" -> expenseService.getExpensesSortedByDate();
+            case "price" -> expenseService.getExpensesSortedByPriceDesc();
+            default -> store.getExpenses();
+        };
+        return array(list, HeadlessServer::expenseJson);
+    }
+
+    private String projects(Map<String, String> p) {
+        List<Project> list;
+        if (p.containsKey("q")) list = projectService.search(p.get("q"));
+        else if (p.containsKey("deadlineDays")) list = projectService.deadlineClose(parseInt(p.get("deadlineDays"), "일수"));
+        else list = store.getProjects();
+        return array(list, HeadlessServer::projectJson);
+    }
+
+    /** ym/upcoming은 회차(반복 일정은 날짜마다 한 줄), 그 밖에는 등록된 일정 자체 */
+    private String schedules(Map<String, String> p) {
+        if (p.containsKey("ym")) {
+            YearMonth ym = parseYm(p.get("ym"));
+            return array(scheduleService.byMonth(ym.getYear(), ym.getMonthValue()), HeadlessServer::occurrenceJson);
+        }
+        if (p.containsKey("upcoming"))
+            return array(scheduleService.upcoming(parseInt(p.get("upcoming"), "개수")), HeadlessServer::occurrenceJson);
+        LocalDate today = scheduleService.today(); // 항목마다 시계를 읽지 않게 한 번만
+        return array(scheduleService.all().values(), s -> scheduleJson(s, today));
+    }
+
+    private String stats() {
+        double sec = (System.nanoTime() - startedAt) / 1e9;
+        long n = requests.sum();
+        return obj("requests", String.valueOf(n),
+                "failures", String.valueOf(failures.sum()),
+                "uptimeSec", String.format(Locale.ROOT, "%.1f", sec),
+                "throughputPerSec", String.format(Locale.ROOT, "%.1f", n / Math.max(sec, 1e-9)),
+                "latencyUs", latencyJson(latency));
+    }
+
+    private void printWindowStats() {
+        long n = windowLatency.count();
+        if (n == 0) return;
+        System.out.printf(Locale.ROOT, "[server] %.0f req/s  p50=%dus p99=%dus max=%dus  (누적 %d건)%n",
+                n / (double) STATS_EVERY_SEC, windowLatency.percentileNanos(0.50) / 1000,
+                windowLatency.percentileNanos(0.99) / 1000, windowLatency.maxNanos() / 1000, requests.sum());
+        windowLatency.reset();
+    }
+
+    private static String latencyJson(LatencyHistogram h) {
+        return obj("mean", String.valueOf(h.meanNanos() / 1000),
+                "p50", String.valueOf(h.percentileNanos(0.50) / 1000),
+                "p90", String.valueOf(h.percentileNanos(0.90) / 1000),
+                "p99", String.valueOf(h.percentileNanos(0.99) / 1000),
+                "max", String.valueOf(h.maxNanos() / 1000));
+    }
+
+    /* ================= 입력 ================= */
+    private static Map<String, String> parseQuery(String raw) {
+        Map<String, String> m = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return m;
+        for (String pair : raw.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String k = eq < 0 ? pair : pair.substring(0, eq);
+            String v = eq < 0 ? "" : pair.substring(eq + 1);
+            m.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+        }
+        return m;
+    }
+
+    private static int parseInt(String s, String what) {
+        if (s == null) throw new ValidationException(what + " 값이 필요합니다.");
+        try { return Integer.parseInt(s.trim()); }
+        catch (NumberFormatException e) { throw new ValidationException(what + "은(는) 숫자여야 합니다: " + s); }
+    }
+
+    private static long parseLong(String s, String what) {
+        if (s == null) throw new ValidationException(what + " 값이 필요합니다.");
+        try { return Long.parseLong(s.trim()); }
+        catch (NumberFormatException e) { throw new ValidationException(what + "은(는) 숫자여야 합니다: " + s); }
+    }
+
+    private static LocalDate parseDate(String s) {
+        if (s == null || s.isBlank()) return null; // 서비스가 ValidationException으로 알린다
+        try { return LocalDate.parse(s.trim()); }
+        catch (DateTimeParseException e) { throw new ValidationException("날짜 형식이 잘못됐습니다. 예) 2025-11-03"); }
+    }
+
+    private static YearMonth parseYm(String s) {
+        if (s == null || s.isBlank()) return YearMonth.now();
+        try { return YearMonth.parse(s.trim()); }
+        catch (DateTimeParseException e) { throw new ValidationException("월 형식이 잘못됐습니다. 예) 2025-11"); }
+    }
+
+    /* ================= JSON ================= */
+    private static Response ok(String json) { return new Response(200, json); }
+
+    private static Response error(int status, String message) { return new Response(status, obj("error", str(message))); }
+
+    private static String expenseJson(Expense e) {
+        return obj("id", String.valueOf(e.getId()), "title", str(e.getTitle()), "category", str(e.getCategory()), "price", String.valueOf(e.getPrice()),
+                "date", str(String.valueOf(e.getPurchaseDate())), "status", str(e.getStatus()));
+    }
+
+    private static String projectJson(Project p) {
+        return obj("id", String.valueOf(p.getId()), "title", str(p.getTitle()), "owner", str(p.getOwner()), "status", str(p.getStatus()),
+                "start", str(String.valueOf(p.getStartDate())), "due", str(String.valueOf(p.getDueDate())));
+    }
+
+    private static String scheduleJson(Schedule s, LocalDate today) {
+        return obj("name", str(s.getName()), "date", str(String.valueOf(s.getDate())), "memo", str(s.getMemo()),
+                "repeat", str(s.getRecurrence() == null ? "" : s.getRecurrence().toString()),
+                "remainingDays", String.valueOf(s.getRemainingDays(today)));
+    }
+
+    private static String occurrenceJson(ScheduleOccurrence o) {
+        return obj("name", str(o.getName()), "date", str(String.valueOf(o.getDate())), "memo", str(o.getMemo()),
+                "repeat", str(o.schedule().getRecurrence() == null ? "" : o.schedule().getRecurrence().toString()),
+                "remainingDays", String.valueOf(o.remainingDays()));
+    }
+
+    private static <T> String array(Collection<T> items, java.util.function.Function<T, String> toJson) {
+        StringBuilder sb = new StringBuilder("[");
+        for (T t : items) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(toJson.apply(t));
+        }
+        return sb.append(']').toString();
+    }
+
+    /** obj("k1", 값JSON, "k2", 값JSON, ...) — 값은 이미 JSON으로 만든 문자열 */
+    private static String obj(String... kv) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i + 1 < kv.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(str(kv[i])).append(':').append(kv[i + 1]);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String str(String s) {
+        if (s == null) return "null";
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -3,16 +3,34 @@ package main;
 import exceptions.NotFoundException;
 import exceptions.StorageException;
 import exceptions.ValidationException;
+import metrics.Metrics;
+import metrics.StartupTimeline;
 import service.*;
+import util.BulkImporter;
 import util.FileManager;
+import util.PersistenceService;
 
 import javax.swing.*;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
-public class MainAppGUI extends JFrame {
+public final class MainAppGUI extends JFrame {
 
     private final DataStore store;
     private final ExpenseService expenseService;
@@ -20,6 +38,13 @@ public class MainAppGUI extends JFrame {
     private final ScheduleService scheduleService;
     private final ReportService reportService;
     private final FileManager fileManager;
+    private final PersistenceService persistence;
+    private final DeadlineEngine deadlines = new DeadlineEngine();
+    private final BulkImporter importer;
+    private final JLabel deadlineStatus = new JLabel(" ");
+    private final JProgressBar loadProgress = new JProgressBar(0, DataStore.Part.values().length);
+    private final Map<JButton, EnumSet<DataStore.Part>> needs = new LinkedHashMap<>(); // 버튼 → 켜지려면 필요한 데이터
+    private final java.util.Deque<String> recentDeadlines = new java.util.ArrayDeque<>();
 
     @FunctionalInterface
     private interface UISafe { void run(); }
@@ -33,29 +58,91 @@ public class MainAppGUI extends JFrame {
     }
 
     public MainAppGUI() {
-        this.store = new DataStore();
+        this.store = new DataStore(Boolean.getBoolean("cwm.columnarExpenses"));
         this.expenseService = new ExpenseService(store);
         this.projectService = new ProjectService(store);
         this.scheduleService = new ScheduleService(store);
         this.reportService = new ReportService(store);
         this.fileManager = new FileManager(store);
+        this.importer = new BulkImporter(store);
+        store.beginBulkLoad(); // 불러오기는 창을 띄운 뒤 startLoading()에서. 그때까지 서비스/버튼은 준비를 기다린다
 
-        uiSafe(fileManager::loadAll);
+        store.publishMetrics();
+        Metrics.startDumpFromProperty(Paths.get("data"));
+        // 저장은 백그라운드 쓰기 스레드가 하고, 오류만 EDT로 돌려받아 알린다
+        this.persistence = new PersistenceService(fileManager,
+                err -> SwingUtilities.invokeLater(() -> uiSafe(() -> { throw err; })));
 
         setTitle("CreativeWork Manager");
-        setSize(420, 380);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setSize(420, 400);
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosing(WindowEvent e) { uiSafe(MainAppGUI.this::saveAndExit); }
+        });
         setLocationRelativeTo(null);
 
         initUI();
+        // 마감 알림: 엔진 스레드에서 온 이벤트를 EDT에서 상태 줄에 보여 준다
+        deadlines.addListener(ev -> SwingUtilities.invokeLater(() -> showDeadline(ev)));
     }
 
     public static void main(String[] args) {
+        StartupTimeline.mark("main");
         Thread.setDefaultUncaughtExceptionHandler((t, e) -> {
             e.printStackTrace();
             JOptionPane.showMessageDialog(null, "치명적 오류: " + e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
         });
-        SwingUtilities.invokeLater(() -> new MainAppGUI().setVisible(true));
+        SwingUtilities.invokeLater(() -> {
+            MainAppGUI app = new MainAppGUI();
+            StartupTimeline.mark("frame.built");
+            app.setVisible(true);
+            StartupTimeline.mark("frame.visible");
+            app.startLoading();
+            SwingUtilities.invokeLater(() -> StartupTimeline.mark("interactive")); // 첫 그리기 뒤 EDT가 비었을 때
+        });
+    }
+
+    /**
+     * 데이터를 백그라운드에서 불러온다. 프로젝트 → 일정 → 소비 순서로 준비되는 대로 해당 버튼을 켜고,
+     * 프로젝트와 일정이 준비되면 마감 알림을 시작한다. 다 끝나면 경고와 시작 단계 시간을 보여 준다.
+     */
+    private void startLoading() {
+        for (DataStore.Part part : DataStore.Part.values()) {
+            store.loaded(part).thenRun(() -> SwingUtilities.invokeLater(() -> partLoaded(part)));
+        }
+        CompletableFuture.allOf(store.loaded(DataStore.Part.PROJECTS), store.loaded(DataStore.Part.SCHEDULES))
+                .thenRun(() -> SwingUtilities.invokeLater(() -> deadlines.start(store)));
+
+        new SwingWorker<Void, Void>() {
+            @Override protected Void doInBackground() {
+                fileManager.loadAll();
+                return null;
+            }
+
+            @Override protected void done() {
+                loadProgress.setVisible(false);
+                uiSafe(() -> join(this));
+                uiSafe(MainAppGUI.this::showLoadWarnings);
+                StartupTimeline.mark("loaded");
+                System.out.print(StartupTimeline.summary());
+            }
+        }.execute();
+    }
+
+    private void partLoaded(DataStore.Part part) {
+        StartupTimeline.mark("ready." + part.name().toLowerCase(Locale.ROOT));
+        int n = 0;
+        for (DataStore.Part p : DataStore.Part.values()) if (store.isLoaded(p)) n++;
+        loadProgress.setValue(n);
+        loadProgress.setString("불러오는 중… " + n + "/" + DataStore.Part.values().length);
+        needs.forEach((btn, parts) -> btn.setEnabled(parts.stream().allMatch(store::isLoaded)));
+    }
+
+    /** 필요한 데이터가 준비될 때까지 버튼을 꺼 둔다. */
+    private void gate(JButton btn, DataStore.Part first, DataStore.Part... rest) {
+        EnumSet<DataStore.Part> parts = EnumSet.of(first, rest);
+        needs.put(btn, parts);
+        btn.setEnabled(parts.stream().allMatch(store::isLoaded));
     }
 
     private void initUI() {
@@ -64,20 +151,124 @@ public class MainAppGUI extends JFrame {
         JButton btnProject = new JButton("2. 프로젝트 관리");
         JButton btnSchedule = new JButton("3. 일정 캘린더");
         JButton btnReport = new JButton("4. 월간 활동 리포트");
+        JButton btnImport = new JButton("📥 가져오기 (CSV/TSV)");
         JButton btnSave = new JButton("💾 저장");
         JButton btnExit = new JButton("종료");
 
         panel.setBorder(BorderFactory.createEmptyBorder(16, 16, 16, 16));
         panel.add(btnExpense); panel.add(btnProject); panel.add(btnSchedule);
-        panel.add(btnReport); panel.add(btnSave); panel.add(btnExit);
+        panel.add(btnReport); panel.add(btnImport); panel.add(btnSave); panel.add(btnExit);
         add(panel);
+        deadlineStatus.setBorder(BorderFactory.createEmptyBorder(0, 16, 8, 16));
+        loadProgress.setStringPainted(true);
+        loadProgress.setString("불러오는 중…");
+        JPanel south = new JPanel(new BorderLayout());
+        south.add(loadProgress, BorderLayout.NORTH);
+        south.add(deadlineStatus, BorderLayout.SOUTH);
+        add(south, BorderLayout.SOUTH);
+
+        // 프로젝트/일정은 소비 내역(가장 큼)을 기다리지 않고 먼저 쓸 수 있다
+        gate(btnProject, DataStore.Part.PROJECTS);
+        gate(btnSchedule, DataStore.Part.SCHEDULES);
+        gate(btnExpense, DataStore.Part.EXPENSES);
+        gate(btnReport, DataStore.Part.PROJECTS, DataStore.Part.SCHEDULES, DataStore.Part.EXPENSES);
+        gate(btnImport, DataStore.Part.PROJECTS, DataStore.Part.SCHEDULES, DataStore.Part.EXPENSES);
+        gate(btnSave, DataStore.Part.PROJECTS, DataStore.Part.SCHEDULES, DataStore.Part.EXPENSES);
 
         btnExpense.addActionListener(e -> uiSafe(this::openExpenseDialog));
         btnProject.addActionListener(e -> uiSafe(this::openProjectDialog));
         btnSchedule.addActionListener(e -> uiSafe(this::openScheduleDialog));
         btnReport.addActionListener(e -> uiSafe(this::openReportDialog));
-        btnSave.addActionListener(e -> uiSafe(() -> { fileManager.saveAll(); JOptionPane.showMessageDialog(this, "저장되었습니다."); }));
-        btnExit.addActionListener(e -> uiSafe(() -> { fileManager.saveAll(); System.exit(0); }));
+        btnImport.addActionListener(e -> uiSafe(this::importByDialog));
+        btnSave.addActionListener(e -> uiSafe(() -> persistence.requestSave().thenRun(() ->
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, "저장되었습니다.")))));
+        btnExit.addActionListener(e -> uiSafe(this::saveAndExit));
+    }
+
+    // 남은 변경을 모두 디스크에 내린 뒤 종료
+    private void saveAndExit() {
+        deadlines.close();
+        persistence.close();
+        Metrics.stopDump();
+        System.exit(0);
+    }
+
+    // 최근 알림 20개는 툴팁으로
+    private void showDeadline(DeadlineEngine.DeadlineEvent ev) {
+        recentDeadlines.addFirst(ev.message().replace("&", "&amp;").replace("<", "&lt;"));
+        if (recentDeadlines.size() > 20) recentDeadlines.removeLast();
+        deadlineStatus.setText(ev.message());
+        deadlineStatus.setToolTipText("<html>" + String.join("<br>", recentDeadlines) + "</html>");
+    }
+
+    private void showLoadWarnings() {
+        List<String> warnings = fileManager.getLoadWarnings();
+        if (warnings.isEmpty()) return;
+        StringBuilder sb = new StringBuilder("잘못된 줄 ").append(warnings.size()).append("개를 건너뛰고 불러왔습니다.\n\n");
+        warnings.stream().limit(20).forEach(w -> sb.append(w).append("\n"));
+        if (warnings.size() > 20) sb.append("... 외 ").append(warnings.size() - 20).append("개");
+        JOptionPane.showMessageDialog(this, sb.toString(), "불러오기 경고", JOptionPane.WARNING_MESSAGE);
+    }
+
+    // ---------------- 가져오기 ----------------
+    // 파일 읽기/검사/추가는 백그라운드에서, 끝나면 EDT에서 전체 저장 한 번과 알림 등록
+    private void importByDialog() {
+        String[] kinds = {"소비", "프로젝트", "일정"};
+        int kind = JOptionPane.showOptionDialog(this,
+                "가져올 항목을 고르세요. 열 순서:\n"
+                        + " - 소비: 제목, 분류, 금액, 구매일(yyyy-MM-dd)\n"
+                        + " - 프로젝트: 제목, 담당자, 시작일, 마감일\n"
+                        + " - 일정: 이름, 날짜, 메모(생략 가능)",
+                "가져오기", JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, kinds, kinds[0]);
+        if (kind < 0) return;
+        JFileChooser fc = new JFileChooser();
+        fc.setFileFilter(new FileNameExtensionFilter("CSV / TSV", "csv", "tsv", "tab", "txt"));
+        if (fc.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = fc.getSelectedFile().toPath();
+        boolean header = JOptionPane.showConfirmDialog(this, "첫 줄이 열 제목(헤더)인가요?", "가져오기",
+                JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION;
+        BulkImporter.Format format = BulkImporter.Format.of(file);
+
+        setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        new SwingWorker<BulkImporter.Report<?>, Void>() {
+            @Override protected BulkImporter.Report<?> doInBackground() {
+                try (InputStream in = Files.newInputStream(file)) {
+                    return switch (kind) {
+                        case 0 -> importer.importExpenses(in, format, header);
+                        case 1 -> importer.importProjects(in, format, header);
+                        default -> importer.importSchedules(in, format, header);
+                    };
+                } catch (IOException e) {
+                    throw new StorageException("가져올 파일 읽기 실패: " + file, e);
+                }
+            }
+
+            @Override protected void done() {
+                setCursor(Cursor.getDefaultCursor());
+                uiSafe(() -> showImportResult(join(this)));
+            }
+        }.execute();
+    }
+
+    private void showImportResult(BulkImporter.Report<?> r) {
+        if (r.imported() > 0) persistence.requestSave();
+        StringBuilder sb = new StringBuilder(r.summary()).append("\n");
+        r.errors().stream().limit(20).forEach(err -> sb.append("\n").append(err));
+        if (r.errors().size() > 20) sb.append("\n... 외 ").append(r.errors().size() - 20).append("개");
+        JOptionPane.showMessageDialog(this, sb.toString(), "가져오기 결과",
+                r.errors().isEmpty() ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
+    }
+
+    /** SwingWorker 결과를 꺼낸다. 작업 중 난 예외는 그대로 다시 던진다. */
+    private static <T> T join(SwingWorker<T, ?> worker) {
+        try {
+            return worker.get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
     }
 
     // ---------------- 소비 ----------------
@@ -114,63 +305,52 @@ public class MainAppGUI extends JFrame {
         try { purchaseDate = LocalDate.parse(dateStr); }
         catch (Exception e) { throw new ValidationException("날짜 형식이 잘못됐습니다. 예) 2025-11-03"); }
 
-        expenseService.addExpense(title, category, price, purchaseDate);
+        model.Expense added = expenseService.addExpense(title, category, price, purchaseDate);
 
-        // 🔎 디버그: 실제 추가되었는지/날짜/스토어 아이디 확인
-        System.out.println("[DEBUG][addExpense] store.id=" + System.identityHashCode(store)
-                + " / size=" + store.getExpenses().size());
-        System.out.println("[DEBUG][addExpense] last=" + title + " / " + price
-                + " / date=" + purchaseDate);
-
-        fileManager.saveAll();
+        persistence.record(FileManager.expenseAdded(added));
         JOptionPane.showMessageDialog(this, "추가되었습니다.");
     }
 
+    private static final List<TableBrowser.Column<model.Expense>> EXPENSE_COLUMNS = List.of(
+            new TableBrowser.Column<>("제목", model.Expense::getTitle),
+            new TableBrowser.Column<>("분류", model.Expense::getCategory),
+            new TableBrowser.Column<>("금액", model.Expense::getPrice),
+            new TableBrowser.Column<>("구매일", model.Expense::getPurchaseDate),
+            new TableBrowser.Column<>("상태", model.Expense::getStatus));
+    private static final String[] EXPENSE_SORTS = {"기본순", "날짜순", "금액 높은순"};
+
+    private static ExpenseSort expenseSort(int index) {
+        return index == 1 ? ExpenseSort.DATE : index == 2 ? ExpenseSort.PRICE_DESC : ExpenseSort.REGISTERED;
+    }
+
     private void showAllExpenses() {
-        String[] options = {"기본순", "날짜순", "금액 높은순"};
-        int sel = JOptionPane.showOptionDialog(this, "어떻게 볼까요?", "소비 정렬",
-                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
-
-        List<model.Expense> list =
-                (sel == 1) ? expenseService.getExpensesSortedByDate()
-                        : (sel == 2) ? expenseService.getExpensesSortedByPriceDesc()
-                        : store.getExpenses();
-
-        StringBuilder sb = new StringBuilder();
-        if (list.isEmpty()) sb.append("등록된 소비 내역이 없습니다.");
-        else {
-            int i = 1;
-            for (model.Expense e : list) {
-                sb.append(i++).append(") ")
-                  .append(e.getTitle()).append(" / ")
-                  .append(e.getCategory()).append(" / ")
-                  .append(e.getPrice()).append("원 / ")
-                  .append(e.getPurchaseDate()).append(" / ")
-                  .append("상태: ").append(e.getStatus()).append("\n");
-            }
-        }
-        JOptionPane.showMessageDialog(this, sb.toString(), "전체 소비 내역", JOptionPane.INFORMATION_MESSAGE);
+        new TableBrowser<>(this, "전체 소비 내역", store, EXPENSE_COLUMNS, EXPENSE_SORTS,
+                (kw, sort) -> expenseService.browse(kw, expenseSort(sort))).setVisible(true);
     }
 
     private void deleteExpenseByDialog() {
-        if (store.getExpenses().isEmpty()) { JOptionPane.showMessageDialog(this, "삭제할 항목이 없습니다."); return; }
-
-        StringBuilder sb = new StringBuilder("삭제할 번호를 입력하세요:\n");
-        int i = 1;
-        for (model.Expense e : store.getExpenses()) {
-            sb.append(i++).append(") ").append(e.getTitle()).append(" / ")
-              .append(e.getCategory()).append(" / ").append(e.getPrice()).append("원\n");
-        }
-        String in = JOptionPane.showInputDialog(this, sb.toString());
+        String in = JOptionPane.showInputDialog(this, "삭제할 항목의 구매월 (yyyy-MM):", YearMonth.now().toString());
         if (in == null) return;
+        YearMonth ym;
+        try { ym = YearMonth.parse(in.trim()); }
+        catch (Exception e) { throw new ValidationException("월 형식이 잘못됐습니다. 예) 2025-11"); }
+
+        // 그 달 조각만 (백그라운드에서) 읽어 표에서 고르게 한다. 고른 항목은 id로 지워 그사이 목록이 바뀌어도 엉뚱한 항목을 지우지 않는다
+        model.Expense target = new TableBrowser<>(this, ym + " 소비 내역에서 삭제", store, EXPENSE_COLUMNS, EXPENSE_SORTS,
+                (kw, sort) -> expenseService.browseMonth(ym, kw, expenseSort(sort))).pick("삭제");
+        if (target == null) return;
+        expenseService.removeExpense(target.getId());
+        persistence.record(FileManager.expenseRemoved(target.getId()));
+        JOptionPane.showMessageDialog(this, "삭제되었습니다.");
+    }
 
+    /** 목록 대화상자에 입력한 1부터의 번호 → 0부터의 위치 */
+    private static int pickIndex(String in, int size, String what) {
         int idx;
-        try { idx = Integer.parseInt(in) - 1; }
+        try { idx = Integer.parseInt(in.trim()) - 1; }
         catch (NumberFormatException e) { throw new ValidationException("숫자를 입력해주세요."); }
-
-        expenseService.removeExpense(idx);
-        fileManager.saveAll();
-        JOptionPane.showMessageDialog(this, "삭제되었습니다.");
+        if (idx < 0 || idx >= size) throw new NotFoundException("존재하지 않는 " + what + " 번호: " + (idx + 1));
+        return idx;
     }
 
     // ---------------- 프로젝트 ----------------
@@ -205,56 +385,47 @@ public class MainAppGUI extends JFrame {
         try { startDate = LocalDate.parse(startStr); dueDate = LocalDate.parse(dueStr); }
         catch (Exception e) { throw new ValidationException("날짜 형식이 잘못됐습니다. 예) 2025-11-03"); }
 
-        projectService.addProject(title, owner, startDate, dueDate);
-        fileManager.saveAll();
+        model.Project added = projectService.addProject(title, owner, startDate, dueDate);
+        persistence.record(FileManager.projectAdded(added));
         JOptionPane.showMessageDialog(this, "프로젝트가 추가되었습니다.");
     }
 
     private void showAllProjects() {
-        String kw = JOptionPane.showInputDialog(this, "검색어(제목/담당자/상태). 비우면 전체:");
-        List<model.Project> list =
-                (kw != null && !kw.isBlank()) ? projectService.search(kw) : store.getProjects();
-
-        StringBuilder sb = new StringBuilder();
-        if (list.isEmpty()) sb.append("조건에 맞는 프로젝트가 없습니다.");
-        else {
-            int i = 1;
-            for (model.Project p : list) {
-                sb.append(i++).append(") ")
-                  .append(p.getTitle()).append(" / ")
-                  .append("담당: ").append(p.getOwner()).append(" / ")
-                  .append("마감: ").append(p.getDueDate()).append(" / ")
-                  .append("상태: ").append(p.getStatus()).append("\n");
-            }
-        }
-        JOptionPane.showMessageDialog(this, sb.toString(), "프로젝트 목록", JOptionPane.INFORMATION_MESSAGE);
+        new TableBrowser<model.Project>(this, "프로젝트 목록", store,
+                List.of(new TableBrowser.Column<>("제목", model.Project::getTitle),
+                        new TableBrowser.Column<>("담당", model.Project::getOwner),
+                        new TableBrowser.Column<>("시작", model.Project::getStartDate),
+                        new TableBrowser.Column<>("마감", model.Project::getDueDate),
+                        new TableBrowser.Column<>("상태", model.Project::getStatus)),
+                new String[]{"기본순", "마감일순"},
+                (kw, sort) -> projectService.browse(kw, sort == 1)
+        ).setVisible(true);
     }
 
     private void changeProjectStatusByDialog() {
-        if (store.getProjects().isEmpty()) { JOptionPane.showMessageDialog(this, "변경할 프로젝트가 없습니다."); return; }
+        List<model.Project> current = store.getProjects();
+        if (current.isEmpty()) { JOptionPane.showMessageDialog(this, "변경할 프로젝트가 없습니다."); return; }
 
         StringBuilder sb = new StringBuilder("상태를 변경할 프로젝트 번호를 선택하세요:\n");
         int i = 1;
-        for (model.Project p : store.getProjects()) {
+        for (model.Project p : current) {
             sb.append(i++).append(") ").append(p.getTitle()).append(" (").append(p.getStatus()).append(")\n");
         }
 
         String in = JOptionPane.showInputDialog(this, sb.toString());
         if (in == null) return;
 
-        int idx;
-        try { idx = Integer.parseInt(in) - 1; }
-        catch (NumberFormatException e) { throw new ValidationException("숫자를 입력해주세요."); }
+        model.Project target = current.get(pickIndex(in, current.size(), "프로젝트"));
 
         String[] statusOptions = {"진행중", "완료", "보류"};
         String newStatus = (String) JOptionPane.showInputDialog(
                 this, "새 상태를 선택하세요:", "상태 변경",
-                JOptionPane.PLAIN_MESSAGE, null, statusOptions, store.getProject(idx).getStatus()
+                JOptionPane.PLAIN_MESSAGE, null, statusOptions, target.getStatus()
         );
         if (newStatus == null) return;
 
-        projectService.changeStatus(idx, newStatus);
-        fileManager.saveAll();
+        projectService.changeStatus(target.getId(), newStatus); // 마감 알림은 엔진이 변경 이벤트로 다시 건다
+        persistence.record(FileManager.projectStatus(target.getId(), newStatus));
         JOptionPane.showMessageDialog(this, "상태가 변경되었습니다.");
     }
 
@@ -285,41 +456,51 @@ public class MainAppGUI extends JFrame {
         String memo = JOptionPane.showInputDialog(this, "메모:");
         if (memo == null) memo = "";
 
-        scheduleService.addSchedule(key, date, memo);
-        fileManager.saveAll();
+        String repeat = JOptionPane.showInputDialog(this,
+                "반복 (비우면 한 번만)\n예) WEEKLY = 매주, MONTHLY:1:2027-12-31 = 매월 그날까지, DAILY:10 = 10일마다", "");
+        if (repeat == null) return;
+        model.Recurrence recurrence = ScheduleService.parseRecurrence(repeat);
+
+        model.Schedule added = scheduleService.addSchedule(key, date, memo, recurrence);
+        persistence.record(FileManager.schedulePut(added));
         JOptionPane.showMessageDialog(this, "일정이 추가되었습니다.");
     }
 
     private void showAllSchedules() {
-        StringBuilder sb = new StringBuilder();
-        int i = 1;
-        for (Map.Entry<String, model.Schedule> e : store.getSchedules().entrySet()) {
-            sb.append(i++).append(") ").append(e.getKey()).append(" : ")
-              .append(e.getValue().getDate()).append(" / ").append(e.getValue().getMemo()).append("\n");
-        }
-        if (sb.length() == 0) sb.append("일정이 없습니다.");
-        JOptionPane.showMessageDialog(this, sb.toString(), "전체 일정", JOptionPane.INFORMATION_MESSAGE);
+        LocalDate today = scheduleService.today(); // 창을 열 때 한 번 (행마다 시계를 읽지 않음)
+        new TableBrowser<model.Schedule>(this, "전체 일정", store,
+                List.of(new TableBrowser.Column<>("이름", model.Schedule::getName),
+                        new TableBrowser.Column<>("날짜", model.Schedule::getDate),
+                        new TableBrowser.Column<>("반복", s -> s.getRecurrence() == null ? "" : s.getRecurrence().toString()),
+                        new TableBrowser.Column<>("남은 일수", s -> s.getRemainingDays(today)),
+                        new TableBrowser.Column<>("메모", model.Schedule::getMemo)),
+                new String[]{"날짜순", "등록순"},
+                (kw, sort) -> scheduleService.browse(kw, sort == 0)
+        ).setVisible(true);
     }
 
     private void deleteScheduleByDialog() {
-        if (store.getSchedules().isEmpty()) { JOptionPane.showMessageDialog(this, "삭제할 일정이 없습니다."); return; }
+        Map<String, model.Schedule> current = store.getSchedules();
+        if (current.isEmpty()) { JOptionPane.showMessageDialog(this, "삭제할 일정이 없습니다."); return; }
         StringBuilder sb = new StringBuilder("삭제할 키를 입력하세요:\n");
-        for (String key : store.getSchedules().keySet()) sb.append("- ").append(key).append("\n");
+        for (String key : current.keySet()) sb.append("- ").append(key).append("\n");
         String k = JOptionPane.showInputDialog(this, sb.toString());
         if (k == null) return;
         scheduleService.removeSchedule(k);
-        fileManager.saveAll();
+        persistence.record(FileManager.scheduleRemoved(k));
         JOptionPane.showMessageDialog(this, "삭제되었습니다.");
     }
 
     private void openReportDialog() {
-        if (store.getExpenses().isEmpty() && store.getProjects().isEmpty() && store.getSchedules().isEmpty()) {
+        if (store.expenseCount() == 0 && store.projectCount() == 0 && store.scheduleCount() == 0) {
             JOptionPane.showMessageDialog(this, "리포트에 표시할 데이터가 없습니다."); return;
         }
 
         java.time.YearMonth nowYm = java.time.YearMonth.now();
         String def = nowYm.toString(); // "2025-11"
-        String in = JOptionPane.showInputDialog(this, "리포트 대상 월을 입력하세요 (yyyy-MM), 기본=" + def, def);
+        String in = JOptionPane.showInputDialog(this,
+                "리포트 대상 월을 입력하세요 (yyyy-MM), 기본=" + def + "\n기간 리포트는 yyyy-MM~yyyy-MM", def);
+        if (in != null && in.contains("~")) { showRangeReport(in); return; }
 
         java.time.YearMonth ym;
         try {
@@ -329,18 +510,26 @@ public class MainAppGUI extends JFrame {
             ym = nowYm;
         }
 
-        // 🔎 디버그: YM과 스토어/항목 상태 (null-safe)
-        System.out.println("[DEBUG][report] ym=" + ym + " / store.id=" + System.identityHashCode(store));
-        System.out.println("[DEBUG][report] expenses.size=" + store.getExpenses().size());
-        final java.time.YearMonth targetYm = ym;
-        for (var e : store.getExpenses()) {
-            var d = e.getPurchaseDate();
-            boolean sameMonth = (d != null) && java.time.YearMonth.from(d).equals(targetYm);
-            System.out.println("[DEBUG][report] " + e.getTitle() + " / " + e.getPrice()
-                    + " / date=" + d + " / sameMonth=" + sameMonth);
-        }
-
         String content = reportService.buildMonthlySummary(ym);
         JOptionPane.showMessageDialog(this, content, "월간 활동 리포트", JOptionPane.INFORMATION_MESSAGE);
     }
+
+    private void showRangeReport(String in) {
+        String[] parts = in.split("~", 2);
+        java.time.YearMonth from, to;
+        try {
+            from = java.time.YearMonth.parse(parts[0].trim());
+            to = java.time.YearMonth.parse(parts[1].trim());
+        } catch (Exception ex) {
+            throw new ValidationException("기간 형식이 잘못됐습니다. 예) 2020-01~2025-12");
+        }
+        String content = reportService.formatRangeReport(reportService.buildRangeReport(from, to));
+        String[] options = {"확인", "월별 리포트 파일로 내보내기"};
+        int sel = JOptionPane.showOptionDialog(this, content, "기간 리포트", JOptionPane.DEFAULT_OPTION,
+                JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
+        if (sel == 1) {
+            int n = reportService.exportMonthlySummaries(from, to, java.nio.file.Paths.get("data")).size();
+            JOptionPane.showMessageDialog(this, "월간 리포트 " + n + "개를 data 폴더에 저장했습니다.");
+        }
+    }
 }
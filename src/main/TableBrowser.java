@@ -0,0 +1,233 @@
+package main;
+
+import service.DataStore;
+import service.PagedView;
+import service.StoreEvent;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * 큰 목록용 표 창.
+ * 정렬/필터는 SwingWorker에서 서비스의 페이지 커서(PagedView)를 만들고,
+ * 표 모델은 화면에 그려지는 행이 속한 페이지만 꺼내 최근 몇 페이지만 들고 있는다.
+ * pick()으로 띄우면 행 하나를 골라 돌려주는 고르기 창이 된다(삭제 대상 고르기 등).
+ * 저장소 변경 이벤트를 구독해, 바뀌면 같은 조건으로 다시 불러온다(쏟아질 때는 CHANGE_DELAY_MS에 한 번).
+ */
+class TableBrowser<T> extends JDialog {
+
+    private static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 16;
+    private static final int FILTER_DELAY_MS = 250;
+    private static final int CHANGE_DELAY_MS = 300;
+
+    /** 열 이름과 값 꺼내는 방법 */
+    record Column<T>(String name, Function<T, Object> value) {}
+
+    /** (검색어, 정렬 선택 번호) → 페이지 커서. 백그라운드 스레드에서 불린다. */
+    @FunctionalInterface
+    interface Query<T> { PagedView<T> run(String keyword, int sortIndex); }
+
+    private final DataStore store;
+    private final Query<T> query;
+    private final LazyModel model;
+    private final JTable table;
+    private final JTextField filter = new JTextField(16);
+    private final JComboBox<String> sort;
+    private final JLabel status = new JLabel(" ");
+    private final Timer filterDelay;
+    private final Timer changeDelay;
+    private final Changes changes = new Changes();
+    private SwingWorker<PagedView<T>, Void> pending;
+    private T picked;
+
+    TableBrowser(Frame owner, String title, DataStore store, List<Column<T>> columns,
+                 String[] sortOptions, Query<T> query) {
+        super(owner, title, true);
+        this.store = store;
+        this.query = query;
+        this.model = new LazyModel(columns);
+        this.sort = new JComboBox<>(sortOptions);
+
+        JPanel top = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        top.add(new JLabel("검색:"));
+        top.add(filter);
+        top.add(new JLabel("정렬:"));
+        top.add(sort);
+
+        table = new JTable(model);
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(0).setMaxWidth(70);
+
+        setLayout(new BorderLayout());
+        add(top, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(status, BorderLayout.SOUTH);
+        setSize(720, 480);
+        setLocationRelativeTo(owner);
+
+        // 타자 칠 때마다가 아니라 잠깐 멈췄을 때 한 번만 다시 조회
+        filterDelay = new Timer(FILTER_DELAY_MS, e -> reload());
+        filterDelay.setRepeats(false);
+        filter.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { filterDelay.restart(); }
+            @Override public void removeUpdate(DocumentEvent e) { filterDelay.restart(); }
+            @Override public void changedUpdate(DocumentEvent e) { filterDelay.restart(); }
+        });
+        sort.addActionListener(e -> reload());
+
+        changeDelay = new Timer(CHANGE_DELAY_MS, e -> {
+            PagedView<T> v = model.view;
+            if (v == null || v.version() != store.version()) reload();
+        });
+        changeDelay.setRepeats(false);
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosed(WindowEvent e) {
+                changes.cancel();
+                changeDelay.stop();
+                filterDelay.stop();
+                if (pending != null) pending.cancel(true);
+            }
+        });
+        setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+        reload();
+        store.changes().subscribe(changes);
+    }
+
+    /** 고르기 버튼(action)을 달고 띄운다. 모달이라 닫힐 때까지 기다렸다가 고른 항목을, 그냥 닫으면 null을 돌려준다. */
+    T pick(String action) {
+        JButton ok = new JButton(action);
+        ok.setEnabled(false);
+        table.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        table.getSelectionModel().addListSelectionListener(e -> ok.setEnabled(table.getSelectedRow() >= 0));
+        ok.addActionListener(e -> choose());
+        table.addMouseListener(new MouseAdapter() {
+            @Override public void mouseClicked(MouseEvent e) { if (e.getClickCount() == 2) choose(); }
+        });
+        JPanel bottom = new JPanel(new BorderLayout());
+        bottom.add(status, BorderLayout.CENTER); // 상태 줄을 옮겨 단다
+        bottom.add(ok, BorderLayout.EAST);
+        add(bottom, BorderLayout.SOUTH);
+        setVisible(true);
+        return picked;
+    }
+
+    private void choose() {
+        T row = model.at(table.getSelectedRow());
+        if (row == null) return;
+        picked = row;
+        dispose();
+    }
+
+    private void reload() {
+        if (pending != null) pending.cancel(true);
+        String keyword = filter.getText();
+        int sortIndex = sort.getSelectedIndex();
+        status.setText("불러오는 중…");
+        SwingWorker<PagedView<T>, Void> worker = new SwingWorker<>() {
+            @Override protected PagedView<T> doInBackground() { return query.run(keyword, sortIndex); }
+
+            @Override protected void done() {
+                if (pending != this) return; // 더 새 요청이 있으면 버린다
+                pending = null;
+                try {
+                    PagedView<T> v = get();
+                    model.setView(v);
+                    status.setText(v.size() == 0 ? "조건에 맞는 항목이 없습니다." : v.size() + "건");
+                } catch (CancellationException | InterruptedException ignore) {
+                    // 새 조건으로 다시 불러오는 중
+                } catch (ExecutionException ex) {
+                    status.setText(" ");
+                    JOptionPane.showMessageDialog(TableBrowser.this, ex.getCause().getMessage(),
+                            "목록 오류", JOptionPane.WARNING_MESSAGE);
+                }
+            }
+        };
+        pending = worker;
+        worker.execute();
+    }
+
+    /** 변경 묶음이 오면 화면 스레드에서 다시 조회를 예약하고, 그다음에야 다음 묶음을 받는다(밀린 것은 한 묶음으로 온다). */
+    private final class Changes implements Flow.Subscriber<List<StoreEvent>> {
+        private volatile Flow.Subscription subscription;
+        private volatile boolean closed;
+
+        @Override public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            if (closed) s.cancel(); else s.request(1);
+        }
+
+        @Override public void onNext(List<StoreEvent> batch) {
+            SwingUtilities.invokeLater(() -> {
+                if (closed) return;
+                if (!changeDelay.isRunning()) changeDelay.start();
+                subscription.request(1);
+            });
+        }
+
+        @Override public void onError(Throwable t) { t.printStackTrace(); }
+
+        @Override public void onComplete() { }
+
+        void cancel() {
+            closed = true;
+            Flow.Subscription s = subscription;
+            if (s != null) s.cancel();
+        }
+    }
+
+    /** 보이는 행이 속한 페이지만 PagedView에서 꺼내 오는 표 모델 */
+    private final class LazyModel extends AbstractTableModel {
+        private final List<Column<T>> columns;
+        private PagedView<T> view;
+        private final Map<Integer, List<T>> pages = new LinkedHashMap<>(CACHED_PAGES, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+
+        LazyModel(List<Column<T>> columns) { this.columns = columns; }
+
+        void setView(PagedView<T> v) {
+            view = v;
+            pages.clear();
+            fireTableDataChanged();
+        }
+
+        @Override public int getRowCount() { return view == null ? 0 : view.size(); }
+
+        @Override public int getColumnCount() { return columns.size() + 1; }
+
+        @Override public String getColumnName(int c) { return c == 0 ? "번호" : columns.get(c - 1).name(); }
+
+        @Override
+        public Object getValueAt(int row, int c) {
+            if (c == 0) return row + 1;
+            T item = at(row);
+            return item == null ? "" : columns.get(c - 1).value().apply(item); // 불러온 뒤 지워진 행: 곧 다시 불러온다
+        }
+
+        /** 그 행의 항목 (범위 밖이거나 불러온 뒤 지워졌으면 null) */
+        T at(int row) {
+            if (view == null || row < 0 || row >= view.size()) return null;
+            List<T> page = pages.computeIfAbsent(row / PAGE_SIZE, p -> view.page(p * PAGE_SIZE, PAGE_SIZE));
+            int i = row % PAGE_SIZE;
+            return i < page.size() ? page.get(i) : null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/** 증가만 하는 카운터 (캐시 적중, 경고 수 등) */
+public final class Counter implements ValueMXBean {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter() {}
+
+    public void increment() { if (Metrics.ENABLED) value.increment(); }
+
+    public void add(long n) { if (Metrics.ENABLED) value.add(n); }
+
+    @Override public long getValue() { return value.sum(); }
+}
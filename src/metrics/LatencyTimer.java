@@ -0,0 +1,53 @@
+package metrics;
+
+import util.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 메서드 하나의 호출 수/실패 수/지연 시간. 기록은 잠금 없이(LongAdder + 로그 버킷) 한다.
+ * Metrics.timer(이름)으로 얻어 static 필드에 두고 쓴다.
+ */
+public final class LatencyTimer implements TimerMXBean {
+
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    LatencyTimer(String name) { this.name = name; }
+
+    public String name() { return name; }
+
+    /** body를 재며 실행한다. 예외가 나면 실패 수도 센다. */
+    public <T> T time(Supplier<T> body) {
+        if (!Metrics.ENABLED) return body.get();
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            T result = body.get();
+            ok = true;
+            return result;
+        } finally {
+            histogram.record(System.nanoTime() - t0);
+            if (!ok) errors.increment();
+        }
+    }
+
+    public void run(Runnable body) {
+        time(() -> { body.run(); return null; });
+    }
+
+    @Override public long getCount() { return histogram.count(); }
+    @Override public long getErrors() { return errors.sum(); }
+    @Override public long getMeanMicros() { return histogram.meanNanos() / 1000; }
+    @Override public long getP50Micros() { return histogram.percentileNanos(0.50) / 1000; }
+    @Override public long getP99Micros() { return histogram.percentileNanos(0.99) / 1000; }
+    @Override public long getMaxMicros() { return histogram.maxNanos() / 1000; }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+        errors.reset();
+    }
+}
@@ -0,0 +1,161 @@
+package metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 프로세스 전체의 측정값 저장소. 타이머/카운터/게이지를 이름으로 한 번 만들어 두고 계속 쓴다.
+ * 만들 때 JMX(플랫폼 MBeanServer, "creativework:type=...,name=...")에 등록하므로 jconsole 등으로 바로 볼 수 있고,
+ * startDump를 부르면 주기적으로 텍스트 파일에도 남긴다.
+ * -Dcwm.metrics=false 이면 기록을 건너뛴다 (등록/조회는 그대로).
+ */
+public final class Metrics {
+
+    static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("cwm.metrics"));
+    private static final String DOMAIN = "creativework";
+    private static final String HEADER = "kind,name,count,errors,mean_us,p50_us,p99_us,max_us,value";
+
+    private static final Map<String, LatencyTimer> timers = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper;
+    private static Path dumpFile;
+
+    private Metrics() {}
+
+    /** 현재 값을 그때그때 읽어 오는 측정값 (데이터 건수 등) */
+    private static final class Gauge implements ValueMXBean {
+        private final LongSupplier source;
+
+        Gauge(LongSupplier source) { this.source = source; }
+
+        @Override public long getValue() { return source.getAsLong(); }
+    }
+
+    // ------------------- 등록 -------------------
+    public static LatencyTimer timer(String name) {
+        return timers.computeIfAbsent(name, n -> register("Timer", n, new LatencyTimer(n)));
+    }
+
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> register("Counter", n, new Counter()));
+    }
+
+    /** 같은 이름으로 다시 부르면 새 공급자로 바꾼다 (저장소를 새로 만든 경우). */
+    public static void gauge(String name, LongSupplier source) {
+        Gauge g = new Gauge(source);
+        gauges.put(name, g);
+        unregister("Gauge", name);
+        register("Gauge", name, g);
+    }
+
+    private static <T> T register(String type, String name, T bean) {
+        try {
+            platform().registerMBean(bean, objectName(type, name));
+        } catch (InstanceAlreadyExistsException ignore) {
+            // 다른 클래스로더에서 이미 등록: JMX 노출만 건너뛴다
+        } catch (JMException e) {
+            System.err.println("⚠️ 측정값 JMX 등록 실패(" + name + "): " + e.getMessage());
+        }
+        return bean;
+    }
+
+    private static void unregister(String type, String name) {
+        try {
+            ObjectName on = objectName(type, name);
+            if (platform().isRegistered(on)) platform().unregisterMBean(on);
+        } catch (JMException ignore) {
+            // 없으면 그만
+        }
+    }
+
+    private static MBeanServer platform() { return ManagementFactory.getPlatformMBeanServer(); }
+
+    private static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+
+    // ------------------- 출력 -------------------
+    /** 모든 측정값을 CSV 한 줄씩 (이름순) */
+    public static String snapshot() {
+        StringBuilder sb = new StringBuilder("# ").append(LocalDateTime.now().withNano(0)).append('\n')
+                .append(HEADER).append('\n');
+        new TreeMap<>(timers).forEach((n, t) -> sb.append("timer,").append(n).append(',')
+                .append(t.getCount()).append(',').append(t.getErrors()).append(',')
+                .append(t.getMeanMicros()).append(',').append(t.getP50Micros()).append(',')
+                .append(t.getP99Micros()).append(',').append(t.getMaxMicros()).append(",\n"));
+        new TreeMap<>(counters).forEach((n, c) -> sb.append("counter,").append(n).append(",,,,,,,")
+                .append(c.getValue()).append('\n'));
+        new TreeMap<>(gauges).forEach((n, g) -> {
+            long v;
+            try { v = g.getValue(); }
+            catch (RuntimeException e) { v = -1; }
+            sb.append("gauge,").append(n).append(",,,,,,,").append(v).append('\n');
+        });
+        return sb.toString();
+    }
+
+    /** snapshot()을 임시 파일에 쓰고 바꿔 끼운다 (읽는 쪽이 반쯤 쓴 파일을 보지 않게). */
+    public static void dumpTo(Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) Files.createDirectories(dir);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, snapshot(), StandardCharsets.UTF_8);
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** every마다 file에 덮어쓰는 데몬 스레드를 시작한다. 이미 돌고 있으면 아무 것도 하지 않는다. */
+    public static synchronized void startDump(Path file, Duration every) {
+        if (dumper != null) return;
+        dumpFile = file;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        long ms = Math.max(every.toMillis(), 1000);
+        dumper.scheduleAtFixedRate(() -> {
+            try { dumpTo(file); }
+            catch (IOException e) { System.err.println("⚠️ 측정값 저장 실패: " + e.getMessage()); }
+        }, ms, ms, TimeUnit.MILLISECONDS);
+    }
+
+    /** -Dcwm.metrics.dump=초 가 있으면 data/metrics.csv로 주기 저장을 켠다. */
+    public static void startDumpFromProperty(Path dataDir) {
+        String sec = System.getProperty("cwm.metrics.dump");
+        if (sec == null || sec.isBlank()) return;
+        try {
+            startDump(dataDir.resolve("metrics.csv"), Duration.ofSeconds(Long.parseLong(sec.trim())));
+        } catch (NumberFormatException e) {
+            System.err.println("⚠️ cwm.metrics.dump 값이 올바르지 않습니다: " + sec);
+        }
+    }
+
+    /** 주기 저장을 멈추고 마지막으로 한 번 더 쓴다. */
+    public static synchronized void stopDump() {
+        if (dumper == null) return;
+        dumper.shutdownNow();
+        dumper = null;
+        try { dumpTo(dumpFile); }
+        catch (IOException e) { System.err.println("⚠️ 측정값 저장 실패: " + e.getMessage()); }
+    }
+}
@@ -0,0 +1,39 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 시작 단계별 시각 (JVM 시작부터 ms). 창이 뜨기까지, 첫 조작이 가능해지기까지 어디서 시간이 드는지 본다.
+ * 단계는 처음 한 번만 기록하고, 게이지 startup.<단계>_ms 로도 내보낸다.
+ */
+public final class StartupTimeline {
+
+    private static final long JVM_START = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final Map<String, Long> marks = new LinkedHashMap<>();
+
+    private StartupTimeline() {}
+
+    /** 지금을 phase 시각으로 남긴다. 이미 있으면 그대로 둔다. */
+    public static void mark(String phase) {
+        long at = System.currentTimeMillis() - JVM_START;
+        synchronized (marks) {
+            if (marks.putIfAbsent(phase, at) != null) return;
+        }
+        Metrics.gauge("startup." + phase + "_ms", () -> at);
+    }
+
+    /** "단계  누적ms  (+앞 단계부터 ms)" 표 */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder("⏱️ 시작 단계 (JVM 시작부터 ms)\n");
+        long prev = 0;
+        synchronized (marks) { // 여러 스레드에서 찍으므로 시각순으로
+            for (Map.Entry<String, Long> en : marks.entrySet().stream().sorted(Map.Entry.comparingByValue()).toList()) {
+                sb.append(String.format(" - %-18s %6d  (+%d)%n", en.getKey(), en.getValue(), en.getValue() - prev));
+                prev = en.getValue();
+            }
+        }
+        return sb.toString();
+    }
+}
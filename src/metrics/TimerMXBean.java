@@ -0,0 +1,12 @@
+package metrics;
+
+/** JMX로 보이는 지연 시간 측정값 (마이크로초) */
+public interface TimerMXBean {
+    long getCount();
+    long getErrors();
+    long getMeanMicros();
+    long getP50Micros();
+    long getP99Micros();
+    long getMaxMicros();
+    void reset();
+}
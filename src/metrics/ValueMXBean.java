@@ -0,0 +1,6 @@
+package metrics;
+
+/** JMX로 보이는 카운터/게이지 값 */
+public interface ValueMXBean {
+    long getValue();
+}
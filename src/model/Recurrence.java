@@ -0,0 +1,114 @@
+package model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * 일정 반복 규칙: 매일/매주/매월을 interval 단위마다, until(포함)까지 (null이면 끝 없음).
+ * k번째 회차는 시작일에서 바로 계산하므로 앞 회차를 거치지 않고 원하는 구간으로 건너뛴다.
+ * 월 반복은 시작일의 "일"을 기준으로 하고, 그 달에 없는 날이면 말일로 맞춘다(1/31 → 2/28 → 3/31).
+ * 글자 형식: 주기[:간격[:끝날짜]] 예) WEEKLY, MONTHLY:1:2027-12-31, DAILY:10
+ */
+public final class Recurrence {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    private final Frequency frequency;
+    private final int interval;
+    private final LocalDate until;
+
+    public Recurrence(Frequency frequency, int interval, LocalDate until) {
+        if (frequency == null) throw new IllegalArgumentException("반복 주기가 필요합니다.");
+        if (interval < 1) throw new IllegalArgumentException("반복 간격은 1 이상이어야 합니다: " + interval);
+        this.frequency = frequency;
+        this.interval = interval;
+        this.until = until;
+    }
+
+    public Frequency getFrequency() { return frequency; }
+    public int getInterval() { return interval; }
+    public LocalDate getUntil() { return until; }
+
+    /** start에서 시작한 k번째(0부터) 회차 날짜 (끝날짜는 보지 않는다) */
+    public LocalDate occurrence(LocalDate start, long k) {
+        return switch (frequency) {
+            case DAILY -> start.plusDays(k * interval);
+            case WEEKLY -> start.plusWeeks(k * interval);
+            case MONTHLY -> start.plusMonths(k * interval);
+        };
+    }
+
+    /** from 이후(포함) 첫 회차. 끝난 반복이면 null */
+    public LocalDate firstOnOrAfter(LocalDate start, LocalDate from) {
+        LocalDate d = occurrence(start, firstIndex(start, from));
+        return until != null && d.isAfter(until) ? null : d;
+    }
+
+    /** 마지막 회차 (끝날짜가 없으면 null, 끝날짜가 시작일보다 앞이면 시작일) */
+    public LocalDate last(LocalDate start) {
+        if (until == null) return null;
+        if (until.isBefore(start)) return start;
+        return occurrence(start, firstIndex(start, until.plusDays(1)) - 1);
+    }
+
+    /**
+     * [from, toExclusive) 구간의 회차를 차례로 하나씩 만든다(toExclusive가 null이면 끝날짜까지, 끝날짜도 없으면 끝없이).
+     * 구간 앞쪽 회차는 계산으로 건너뛰고, 꺼낸 만큼만 만든다.
+     */
+    public Iterator<LocalDate> dates(LocalDate start, LocalDate from, LocalDate toExclusive) {
+        return new Iterator<LocalDate>() {
+            long k = firstIndex(start, from);
+            LocalDate next = at(k);
+
+            private LocalDate at(long i) {
+                LocalDate d = occurrence(start, i);
+                if (until != null && d.isAfter(until)) return null;
+                if (toExclusive != null && !d.isBefore(toExclusive)) return null;
+                return d;
+            }
+
+            @Override public boolean hasNext() { return next != null; }
+
+            @Override public LocalDate next() {
+                if (next == null) throw new NoSuchElementException();
+                LocalDate d = next;
+                next = at(++k);
+                return d;
+            }
+        };
+    }
+
+    /** from 이후(포함) 첫 회차 번호. 일/주는 나눗셈으로, 월은 개월 수로 어림한 뒤 한두 칸 맞춘다. */
+    private long firstIndex(LocalDate start, LocalDate from) {
+        if (!from.isAfter(start)) return 0;
+        long k = switch (frequency) {
+            case DAILY -> Math.ceilDiv(ChronoUnit.DAYS.between(start, from), (long) interval);
+            case WEEKLY -> Math.ceilDiv(ChronoUnit.DAYS.between(start, from), 7L * interval);
+            case MONTHLY -> ChronoUnit.MONTHS.between(start, from) / interval;
+        };
+        while (occurrence(start, k).isBefore(from)) k++;
+        return k;
+    }
+
+    /** 글자 형식을 읽는다. 비어 있으면 null (반복 없음) */
+    public static Recurrence parse(String text) {
+        if (text == null || text.isBlank()) return null;
+        String[] p = text.trim().split(":", -1);
+        if (p.length > 3) throw new IllegalArgumentException("반복 형식이 잘못되었습니다: " + text);
+        Frequency f;
+        try { f = Frequency.valueOf(p[0].trim().toUpperCase(Locale.ROOT)); }
+        catch (IllegalArgumentException e) { throw new IllegalArgumentException("반복 주기는 DAILY/WEEKLY/MONTHLY 중 하나입니다: " + p[0]); }
+        int every = p.length > 1 && !p[1].isBlank() ? Integer.parseInt(p[1].trim()) : 1;
+        LocalDate end = p.length > 2 && !p[2].isBlank() ? LocalDate.parse(p[2].trim()) : null;
+        return new Recurrence(f, every, end);
+    }
+
+    /** parse()로 다시 읽을 수 있는 글자 형식 */
+    @Override
+    public String toString() {
+        return frequency + ":" + interval + (until == null ? "" : ":" + until);
+    }
+}
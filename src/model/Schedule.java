@@ -5,13 +5,19 @@ import java.time.temporal.ChronoUnit;
 
 public class Schedule implements Schedulable {
     private String name;
-    private LocalDate date;
+    private LocalDate date;       // 반복 일정이면 첫 회차
     private String memo;
+    private Recurrence recurrence; // null이면 한 번짜리
 
     public Schedule(String name, LocalDate date, String memo) {
+        this(name, date, memo, null);
+    }
+
+    public Schedule(String name, LocalDate date, String memo, Recurrence recurrence) {
         this.name = name;
         this.date = date;
         this.memo = memo == null ? "" : memo;
+        this.recurrence = recurrence;
     }
 
     public String getName() { return name; }
@@ -23,7 +29,20 @@ public class Schedule implements Schedulable {
     public String getMemo() { return memo; }
     public void setMemo(String memo) { this.memo = memo; }
 
-    public long getRemainingDays() {
-        return ChronoUnit.DAYS.between(LocalDate.now(), date);
+    public Recurrence getRecurrence() { return recurrence; }
+    public void setRecurrence(Recurrence recurrence) { this.recurrence = recurrence; }
+
+    public boolean isRecurring() { return recurrence != null; }
+
+    /** today 기준 다음 날짜: 한 번짜리는 그 날짜, 반복은 today 이후 첫 회차(끝났으면 마지막 회차) */
+    public LocalDate nextDate(LocalDate today) {
+        if (recurrence == null) return date;
+        LocalDate next = recurrence.firstOnOrAfter(date, today);
+        return next != null ? next : recurrence.last(date);
+    }
+
+    /** today는 조회마다 한 번 정해 넘긴다(항목마다 시계를 읽지 않도록). */
+    public long getRemainingDays(LocalDate today) {
+        return ChronoUnit.DAYS.between(today, nextDate(today));
     }
 }
@@ -0,0 +1,13 @@
+package model;
+
+import java.time.LocalDate;
+
+/** 일정 한 회차. 반복 일정이면 그중 한 날짜이고, 남은 일수는 조회할 때 한 번 정한 오늘 기준이다. */
+public record ScheduleOccurrence(Schedule schedule, LocalDate date, long remainingDays) implements Schedulable {
+
+    @Override public String getName() { return schedule.getName(); }
+
+    @Override public LocalDate getDate() { return date; }
+
+    public String getMemo() { return schedule.getMemo(); }
+}
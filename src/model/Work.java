@@ -1,6 +1,7 @@
 package model;
 
 public abstract class Work {
+    private long id;       // 저장소가 정하는 고유 번호 (0이면 아직 저장소에 안 들어감)
     private String title;
     private String status; // 예: 등록/진행중/완료/보류 등
 
@@ -9,6 +10,9 @@ public abstract class Work {
         this.status = status;
     }
 
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
     public String getTitle() { return title; }
     public void setTitle(String title) { this.title = title; }
 
@@ -0,0 +1,168 @@
+package service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+
+/**
+ * 저장소 변경 이벤트 발행기 (java.util.concurrent.Flow).
+ * 구독자마다 버퍼를 두고, 요청(request)한 만큼만 이벤트를 묶음(최대 maxBatch개)으로 보낸다.
+ * 느린 구독자는 다음 요청 때까지 쌓인 것을 한 묶음으로 받는다.
+ * 쓰는 쪽(저장소 쓰기 잠금 아래)은 버퍼에 넣기만 하고 기다리지 않는다. 버퍼가 넘치면 쌓인 것을 버리고
+ * Resync 하나로 바꿔 보내며, 그 뒤 Resync가 나갈 때까지 오는 것도 버린다(구독자가 어차피 다시 읽으므로).
+ * 전달은 구독자마다 한 번에 하나씩(순서대로) executor에서 한다.
+ */
+public final class ChangeStream implements Flow.Publisher<List<StoreEvent>> {
+
+    public static final int DEFAULT_BUFFER = 8192;
+    public static final int DEFAULT_BATCH = 256;
+
+    private final Executor executor;
+    private final int bufferSize;
+    private final int maxBatch;
+    private final List<Sub> subs = new CopyOnWriteArrayList<>();
+
+    ChangeStream() {
+        this(Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("store-events-", 0).factory()),
+                DEFAULT_BUFFER, DEFAULT_BATCH);
+    }
+
+    ChangeStream(Executor executor, int bufferSize, int maxBatch) {
+        if (bufferSize < 1 || maxBatch < 1) throw new IllegalArgumentException("버퍼/묶음 크기는 1 이상이어야 합니다.");
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.maxBatch = maxBatch;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<StoreEvent>> subscriber) {
+        Sub s = new Sub(Objects.requireNonNull(subscriber));
+        subs.add(s);
+        s.schedule(); // onSubscribe도 전달 작업 안에서 불러 이후 신호와 겹치지 않게
+    }
+
+    /** 구독자가 없으면 이벤트를 만들 필요도 없다 */
+    boolean hasSubscribers() { return !subs.isEmpty(); }
+
+    public int subscriberCount() { return subs.size(); }
+
+    /** 모든 구독자 버퍼에 넣는다. 기다리지 않는다. */
+    void publish(StoreEvent e) {
+        for (Sub s : subs) s.offer(e);
+    }
+
+    /** 구독 하나: 버퍼, 남은 요청 수, 전달 작업이 돌고 있는지 */
+    private final class Sub implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super List<StoreEvent>> subscriber;
+        private final ArrayDeque<StoreEvent> queue = new ArrayDeque<>();
+        private long demand;
+        private boolean started, running, cancelled, overflowed;
+        private long droppedVersion;
+        private Throwable error; // 잘못된 request(n) (규약상 onError로 알린다)
+
+        Sub(Flow.Subscriber<? super List<StoreEvent>> subscriber) { this.subscriber = subscriber; }
+
+        void offer(StoreEvent e) {
+            synchronized (this) {
+                if (cancelled) return;
+                if (overflowed) { droppedVersion = e.version(); return; }
+                if (queue.size() >= bufferSize) {
+                    queue.clear();
+                    overflowed = true;
+                    droppedVersion = e.version();
+                } else {
+                    queue.add(e);
+                }
+                if (running || demand == 0) return;
+                running = true;
+            }
+            executor.execute(this);
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (cancelled) return;
+                if (n <= 0) error = new IllegalArgumentException("request는 1 이상이어야 합니다: " + n);
+                else demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // 넘치면 무한으로
+                if (running) return;
+                running = true;
+            }
+            executor.execute(this);
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                queue.clear();
+            }
+            subs.remove(this);
+        }
+
+        void schedule() {
+            synchronized (this) {
+                if (running) return;
+                running = true;
+            }
+            executor.execute(this);
+        }
+
+        /** 보낼 것과 요청이 남아 있는 동안 묶음을 보낸다. 한 구독에 한 번에 하나만 돈다. */
+        @Override
+        public void run() {
+            if (!started) {
+                started = true;
+                if (!deliver(() -> subscriber.onSubscribe(this))) return;
+            }
+            while (true) {
+                List<StoreEvent> batch;
+                Throwable failed;
+                synchronized (this) {
+                    failed = error;
+                    if (failed == null && (cancelled || demand == 0 || (queue.isEmpty() && !overflowed))) {
+                        running = false;
+                        return;
+                    }
+                    if (failed != null) {
+                        batch = null;
+                    } else if (overflowed) {
+                        batch = List.of(new StoreEvent.Resync(droppedVersion));
+                        overflowed = false;
+                        demand--;
+                    } else {
+                        List<StoreEvent> out = new ArrayList<>(Math.min(queue.size(), maxBatch));
+                        while (out.size() < maxBatch && !queue.isEmpty()) out.add(queue.poll());
+                        batch = Collections.unmodifiableList(out);
+                        demand--;
+                    }
+                }
+                if (failed != null) {
+                    cancel();
+                    subscriber.onError(failed);
+                    return;
+                }
+                if (!deliver(() -> subscriber.onNext(batch))) return;
+            }
+        }
+
+        /** 구독자가 던지면 구독을 끊는다(발행기와 다른 구독자는 계속 돈다). */
+        private boolean deliver(Runnable signal) {
+            try {
+                signal.run();
+                return true;
+            } catch (RuntimeException ex) {
+                ex.printStackTrace();
+                cancel();
+                synchronized (this) { running = false; }
+                return false;
+            }
+        }
+    }
+}
@@ -1,75 +1,851 @@
 package service;
 
 import exceptions.NotFoundException;
+import metrics.Metrics;
 import model.Expense;
 import model.Project;
 import model.Schedule;
+import model.ScheduleOccurrence;
+import model.Work;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
+/**
+ * 소비/프로젝트/일정 저장소. 여러 스레드에서 동시에 써도 된다.
+ * 컬렉션마다 읽기/쓰기 잠금을 따로 두어(잠금 분할) 서로 다른 종류의 작업은 막지 않고,
+ * 같은 종류도 읽기끼리는 동시에 진행된다. 여러 잠금을 잡을 때는 소비 → 프로젝트 → 일정 순서.
+ * 목록 조회는 그 시점의 읽기 전용 사본을 돌려준다. 목록은 구조를 공유하는 고정판(copy-on-write)이라
+ * snapshot()으로 전체를 O(1)에 고정해 두면 리포트/내보내기/저장이 잠금 없이 그 시점 그대로 읽는다.
+ * 소비/프로젝트는 넣을 때 고유 id(1부터, 둘이 같은 번호 공간)를 받고, 번호(위치) 대신 id로 찾고 고치고 지울 수 있다.
+ * 바뀐 내용은 changes()로 구독할 수 있다(다시 전부 읽는 대신 바뀐 것만 반영).
+ */
 public class DataStore {
 
-    private final List<Expense> expenses = new ArrayList<>();
-    private final List<Project> projects = new ArrayList<>();
-    private final Map<String, Schedule> schedules = new LinkedHashMap<>();
+    private final ReadWriteLock expenseLock = new ReentrantReadWriteLock();
+    private final ReadWriteLock projectLock = new ReentrantReadWriteLock();
+    private final ReadWriteLock scheduleLock = new ReentrantReadWriteLock();
+
+    private final List<Expense> expenses;
+    private final VersionedList<Expense> expenseList;  // 목록 모드일 때만 (아니면 null)
+    private final ExpenseColumns expenseColumns;       // 열 저장 모드일 때만 (아니면 null)
+    private final LongIntMap expenseDays = new LongIntMap(); // 읽힌 소비 id → 구매일(epoch-day), 달 덩어리 찾기용
+    private final RecordTable<Project> projects = new RecordTable<>(); // 등록 순서, id로 O(1)
+    // 일정: 이름 → 등록 순서 칸. 지운 칸은 null로 두었다가 살아 있는 수보다 많아지면 당긴다
+    private final Map<String, Integer> scheduleSlots = new HashMap<>();
+    private final VersionedList<Schedule> schedules = new VersionedList<>();
+    private int deadSchedules;
+    // 날짜(같으면 이름) 순 일정 색인: 번호 접근/월 범위/다가오는 일정용 (반복 일정은 첫 회차 날짜로)
+    private static final Comparator<Schedule> SCHEDULE_ORDER =
+            Comparator.comparing(Schedule::getDate).thenComparing(Schedule::getName);
+    private final OrderedIndex<Schedule> schedulesByDate = new OrderedIndex<>(SCHEDULE_ORDER);
+    // 반복 일정만 따로: 회차 커서가 구간에 걸칠 수 있는 규칙만 훑는다
+    private final OrderedIndex<Schedule> recurringByDate = new OrderedIndex<>(SCHEDULE_ORDER);
+    private final ExpenseSortIndex expenseOrder; // 구매일순/금액 내림차순 (상위 K개, 날짜/금액 구간)
+    private final ExpenseShards shards = new ExpenseShards(); // 구매월별 건수/합계, 안 읽은 달, 바뀐 달
+
+    // 검색용 n-gram 색인 (열 저장 모드는 행 객체가 없으므로 소비 색인을 두지 않고 스캔한다)
+    private static final int EXPENSE_TITLE = 0, EXPENSE_CATEGORY = 1;
+    private final NgramIndex<Expense> expenseText;
+    private final NgramIndex<Project> projectText =
+            new NgramIndex<>(List.of(Project::getTitle, Project::getOwner, Project::getStatus));
+
+    // 리포트 집계 (대량 적재 중에는 멈췄다가 그 부분이 다 읽힐 때 한 번 다시 계산)
+    private final ReportAggregates aggregates = new ReportAggregates();
+
+    // 부분별 불러오기 완료 (대량 적재 중이 아니면 모두 완료 상태)
+    private final Map<Part, CompletableFuture<Void>> loaded = new ConcurrentHashMap<>();
+
+    // 변경될 때마다 1씩 증가 (화면/캐시가 다시 읽어야 하는지 판단용)
+    private final AtomicLong version = new AtomicLong();
+
+    // 변경 이벤트: 쓰기 잠금 아래서 넣어 같은 부분 안의 순서를 지킨다. 대량 적재 중인 부분은 끝날 때 Reset 하나로
+    private final ChangeStream changes = new ChangeStream();
+
+    // 마지막으로 준 id (불러온 항목/조각 목록의 id를 보면 그 이상으로 올린다)
+    private final AtomicLong lastId = new AtomicLong();
+    private static final int NO_DAY = Integer.MIN_VALUE;
+
+    public DataStore() { this(false); }
+
+    /** columnarExpenses=true면 소비 내역을 객체 대신 원시 배열 열로 보관한다(대용량 가계부용). */
+    public DataStore(boolean columnarExpenses) {
+        for (Part p : Part.values()) loaded.put(p, CompletableFuture.completedFuture(null));
+        this.expenseColumns = columnarExpenses ? new ExpenseColumns() : null;
+        this.expenseList = columnarExpenses ? null : new VersionedList<>();
+        this.expenses = columnarExpenses ? expenseColumns : expenseList;
+        this.expenseOrder = new ExpenseSortIndex(expenses, expenseColumns);
+        this.expenseText = columnarExpenses ? null : new NgramIndex<>(List.of(Expense::getTitle, Expense::getCategory));
+    }
+
+    public boolean isColumnarExpenses() { return expenseColumns != null; }
+
+    /** 어떤 컬렉션이든 바뀌면 커지는 값 */
+    public long version() { return version.get(); }
+
+    /**
+     * 변경 이벤트 구독. 요청한 만큼 묶음으로 받고, 밀려서 버퍼가 넘치면 Resync를 받는다(StoreEvent 참고).
+     * 구독자 호출은 저장소 잠금 밖의 별도 스레드에서 한다.
+     */
+    public Flow.Publisher<List<StoreEvent>> changes() { return changes; }
+
+    /** 구독자가 있고 그 부분이 대량 적재 중이 아닐 때만 (이벤트 객체도 그때만 만든다) */
+    private boolean publishing(Part part) { return changes.hasSubscribers() && !loading(part); }
+
+    /** 데이터 건수와 버전을 측정값(게이지)으로 내보낸다. 진입점에서 저장소를 만든 뒤 한 번 부른다. */
+    public void publishMetrics() {
+        Metrics.gauge("store.expenses", this::expenseCount);
+        Metrics.gauge("store.projects", this::projectCount);
+        Metrics.gauge("store.schedules", this::scheduleCount);
+        Metrics.gauge("store.version", this::version);
+        Metrics.gauge("store.expenses.loadedMonths", this::loadedExpenseMonths);
+    }
+
+    // ------------------- 불러오기 준비 상태 -------------------
+    // 시작할 때 창을 먼저 띄우고 백그라운드에서 불러오므로, 서비스는 자기가 쓰는 부분만 기다린다.
+
+    /** 따로 준비되는 데이터 부분 (불러오는 순서) */
+    public enum Part { PROJECTS, SCHEDULES, EXPENSES }
+
+    /**
+     * 불러오기처럼 한꺼번에 넣을 때: 부분마다 markLoaded()까지 리포트 집계 갱신을 미루고 "준비 안 됨"으로 둔다.
+     * 이미 적재 중인 부분은 그대로 둔다(기다리던 쪽이 같은 완료를 받도록).
+     */
+    public synchronized void beginBulkLoad() {
+        for (Part p : Part.values()) if (loaded.get(p).isDone()) loaded.put(p, new CompletableFuture<>());
+    }
+
+    /** 그 부분을 다 넣었다: 집계가 있으면 한 번 다시 계산하고 기다리던 쪽을 깨운다. 이미 준비됐으면 아무 것도 안 한다. */
+    public void markLoaded(Part part) {
+        CompletableFuture<Void> done = loaded.get(part);
+        if (done.isDone()) return;
+        switch (part) { // 집계 재계산과 완료 표시를 같은 잠금 아래서 해서 그 사이 변경이 빠지지 않게
+            case EXPENSES -> write(expenseLock, () -> loadedReset(part, done)); // 월 합계는 조각 요약이 늘 들고 있다
+            case PROJECTS -> write(projectLock, () -> { aggregates.rebuildProjects(projects); loadedReset(part, done); });
+            case SCHEDULES -> write(scheduleLock, () -> loadedReset(part, done));
+        }
+    }
+
+    /** 적재 중 멈췄던 이벤트 대신 Reset 하나 (그 부분의 쓰기 잠금 아래서) */
+    private void loadedReset(Part part, CompletableFuture<Void> done) {
+        done.complete(null);
+        if (changes.hasSubscribers()) changes.publish(new StoreEvent.Reset(version.get(), part));
+    }
+
+    /** 남은 부분을 모두 준비 완료로 (불러오기가 실패해도 기다리는 쪽이 멈춰 있지 않게 finally에서 부른다) */
+    public void endBulkLoad() {
+        for (Part p : Part.values()) markLoaded(p);
+    }
+
+    /** 그 부분이 준비되면 완료되는 future (화면이 버튼을 켜는 데 쓴다) */
+    public CompletableFuture<Void> loaded(Part part) { return loaded.get(part); }
+
+    public boolean isLoaded(Part part) { return loaded.get(part).isDone(); }
+
+    /** 필요한 부분이 다 읽힐 때까지 기다린다. 이미 준비됐으면 바로 돌아온다. */
+    public void awaitLoaded(Part... parts) {
+        for (Part p : parts) {
+            CompletableFuture<Void> done = loaded.get(p);
+            if (!done.isDone()) done.join();
+        }
+    }
+
+    private boolean loading(Part part) { return !loaded.get(part).isDone(); }
+
+    // ------------------- 스냅숏 -------------------
+
+    /**
+     * 지금 시점을 고정한다. 세 잠금을 정해진 순서로 잠깐 잡고 각 목록의 판만 집어 오므로 O(1)이고
+     * (달 요약/바뀐 달 표시/상태별 개수는 복사), 이후 읽기는 잠금 없이 한다. 안 읽은 달은 읽지 않는다.
+     */
+    public StoreSnapshot snapshot() {
+        return read(expenseLock, () -> read(projectLock, () -> read(scheduleLock, () -> {
+            List<Expense> rows = pinExpenses();
+            Map<YearMonth, Long> stamps = shards.dirty();
+            Map<YearMonth, List<Expense>> changed = new HashMap<>();
+            for (YearMonth ym : stamps.keySet()) {
+                int start = shards.memoryStart(ym);
+                changed.put(ym, rows.subList(start, start + shards.count(ym)));
+            }
+            return new StoreSnapshot(version.get(), rows, new ExpenseShardImage(shards.summaries(), changed, stamps),
+                    projects.snapshot(), aggregates.projectCounts(),
+                    schedules.snapshot().present(), schedulesByDate.snapshot(), recurringByDate.snapshot());
+        })));
+    }
+
+    /** from~to(양 끝 월 포함)에 걸치는 달을 먼저 읽어 온 뒤 고정한다(기간 리포트용). */
+    public StoreSnapshot snapshot(YearMonth from, YearMonth to) {
+        ensureLoaded(ym -> !ym.isBefore(from) && !ym.isAfter(to));
+        return snapshot();
+    }
+
+    /** 소비 목록의 지금 판 (잠금 아래서, O(1)) */
+    private List<Expense> pinExpenses() {
+        return expenseColumns != null ? expenseColumns.snapshot() : expenseList.snapshot();
+    }
 
     // ------------------- Expense -------------------
-    public List<Expense> getExpenses() { return expenses; }
+    // 색인과 어긋나지 않도록 추가/삭제는 DataStore 메서드로만 한다.
+    // 메모리 목록은 구매월 순서의 달 덩어리(같은 달은 등록 순서)이고, 번호(idx)는 안 읽은 달까지 센 전체 번호다.
+    // 조각 파일이 붙어 있으면 질의가 닿는 달만 그때 읽어 온다(읽어 와도 버전은 그대로).
+
+    /** 구매월 조각 하나의 요약 (목록 파일 한 줄). maxId는 그 달 항목 id 중 가장 큰 값 */
+    public record MonthSummary(int count, long total, long maxId) {}
+
+    /** 구매월 조각을 읽어 오는 쪽. 그 달 소비 내역을 등록 순서로 돌려준다. */
+    @FunctionalInterface
+    public interface ShardLoader { List<Expense> load(YearMonth ym); }
+
+    /** 저장 시점의 조각 상태: 전체 달 요약, 바뀐 달의 행(비었으면 빈 목록), 바뀐 달의 변경 버전 */
+    public record ExpenseShardImage(SortedMap<YearMonth, MonthSummary> months,
+                                    Map<YearMonth, List<Expense>> changed, Map<YearMonth, Long> stamps) {}
 
+    /** 조각 목록 파일로 소비 내역을 바꾼다. 행은 읽지 않고 달별 건수/합계만 들고 있는다. */
+    public void attachExpenseShards(Map<YearMonth, MonthSummary> months, ShardLoader loader) {
+        write(expenseLock, () -> {
+            expenses.clear();
+            expenseDays.clear();
+            expenseOrder.clear();
+            if (expenseText != null) expenseText.clear();
+            shards.attach(months, loader);
+            lastId.accumulateAndGet(shards.maxId(), Math::max);
+            long v = version.incrementAndGet();
+            if (publishing(Part.EXPENSES)) changes.publish(new StoreEvent.Reset(v, Part.EXPENSES));
+        });
+    }
+
+    /** 메모리에 올라온 달 수 (나머지는 필요할 때 읽는다) */
+    public int loadedExpenseMonths() { return read(expenseLock, shards::loadedMonths); }
+
+    /** 지금 시점의 소비 내역 (읽기 전용 고정판, 구매월 순서) */
+    public List<Expense> getExpenses() {
+        ensureAllLoaded();
+        return read(expenseLock, this::pinExpenses);
+    }
+
+    /** 안 읽은 달을 모두 읽어 온다(id가 없던 옛 조각을 한 번에 고쳐 쓸 때 등). */
+    public void loadAllExpenseMonths() { ensureAllLoaded(); }
+
+    /** 안 읽은 달까지 포함한 건수 (조각을 읽지 않는다) */
+    public int expenseCount() { return read(expenseLock, shards::total); }
+
+    /** 구매월 덩어리의 끝(같은 달에서는 마지막)에 넣는다. id가 없으면(0) 새로 준다. */
+    public void addExpense(Expense e) {
+        write(expenseLock, () -> {
+            YearMonth ym = ExpenseShards.monthOf(e);
+            loadShards(shards.unloaded(ym::equals));
+            assignId(e, expenseDays::containsKey);
+            expenseDays.put(e.getId(), (int) e.getPurchaseDate().toEpochDay());
+            expenses.add(shards.memoryStart(ym) + shards.count(ym), e);
+            long v = version.incrementAndGet();
+            shards.added(e, v);
+            if (!loading(Part.EXPENSES)) expenseOrder.add(e); else expenseOrder.invalidate();
+            if (expenseText != null) expenseText.add(e);
+            if (publishing(Part.EXPENSES)) changes.publish(new StoreEvent.ExpenseAdded(v, e));
+        });
+    }
+
+    /**
+     * 가져오기용: 잠금 한 번, 버전 한 번으로 모두 추가한다.
+     * 모두 메모리의 마지막 달 이후면 구매월 순으로 끝에 한 번에 붙이고,
+     * 아니면 달마다 덩어리 끝에 끼워 넣는다(뒤쪽 달부터 넣어 앞쪽 위치가 밀리지 않게).
+     * 날짜/검색 색인과 집계는 그 뒤에 한 번에 갱신한다.
+     */
+    public void addExpenses(Collection<Expense> batch) {
+        if (batch.isEmpty()) return;
+        TreeMap<YearMonth, List<Expense>> byMonth = new TreeMap<>();
+        for (Expense e : batch) byMonth.computeIfAbsent(ExpenseShards.monthOf(e), k -> new ArrayList<>()).add(e);
+        write(expenseLock, () -> {
+            loadShards(shards.unloaded(byMonth::containsKey));
+            for (Expense e : batch) { // 같은 batch 안에서 겹치는 id도 걸러지도록 하나씩 등록
+                assignId(e, expenseDays::containsKey);
+                expenseDays.put(e.getId(), (int) e.getPurchaseDate().toEpochDay());
+            }
+            YearMonth last = shards.lastLoaded();
+            if (last == null || !byMonth.firstKey().isBefore(last)) {
+                for (List<Expense> rows : byMonth.values()) expenses.addAll(rows);
+            } else {
+                for (Map.Entry<YearMonth, List<Expense>> en : byMonth.descendingMap().entrySet())
+                    expenses.addAll(shards.memoryStart(en.getKey()) + shards.count(en.getKey()), en.getValue());
+            }
+            long v = version.incrementAndGet();
+            for (Expense e : batch) shards.added(e, v);
+            if (!loading(Part.EXPENSES)) expenseOrder.addAll(batch); else expenseOrder.invalidate();
+            if (expenseText != null) for (Expense e : batch) expenseText.add(e);
+            if (publishing(Part.EXPENSES)) for (Expense e : batch) changes.publish(new StoreEvent.ExpenseAdded(v, e));
+        });
+    }
+
+    /** 안 읽은 달까지 모두 지운다(저장하면 조각 파일도 지워진다). */
+    public void clearExpenses() {
+        write(expenseLock, () -> {
+            expenses.clear();
+            expenseDays.clear();
+            long v = version.incrementAndGet();
+            shards.clear(v);
+            expenseOrder.clear();
+            if (expenseText != null) expenseText.clear();
+            if (publishing(Part.EXPENSES)) changes.publish(new StoreEvent.Reset(v, Part.EXPENSES));
+        });
+    }
+
+    /** idx가 든 달만 읽어 온다(안 읽은 달이 있으면 쓰기 잠금). */
     public Expense getExpense(int idx) {
-        if (idx < 0 || idx >= expenses.size())
-            throw new NotFoundException("존재하지 않는 소비 항목 번호: " + (idx + 1));
-        return expenses.get(idx);
+        Supplier<Expense> at = () -> {
+            checkExpenseIndex(idx);
+            return expenses.get(memoryIndex(idx));
+        };
+        return shards.allLoaded() ? read(expenseLock, at) : write(expenseLock, at);
+    }
+
+    /** id로 찾는다. 읽힌 달에 없으면 남은 달을 읽어 본다(없으면 NotFoundException). */
+    public Expense getExpenseById(long id) {
+        Supplier<Expense> find = () -> expenses.get(expenseRow(id));
+        return shards.allLoaded() ? read(expenseLock, find) : write(expenseLock, find);
+    }
+
+    /** 번호 확인과 삭제를 한 번에 한다. 지운 항목을 돌려준다. */
+    public Expense removeExpense(int idx) {
+        return write(expenseLock, () -> {
+            checkExpenseIndex(idx);
+            return removeExpenseRow(memoryIndex(idx));
+        });
+    }
+
+    /** id 확인과 삭제를 한 번에 한다. 지운 항목을 돌려준다. */
+    public Expense removeExpenseById(long id) {
+        return write(expenseLock, () -> removeExpenseRow(expenseRow(id)));
     }
 
-    public void removeExpense(int idx) {
-        if (idx < 0 || idx >= expenses.size())
+    private Expense removeExpenseRow(int row) {
+        Expense e = expenses.remove(row);
+        expenseDays.remove(e.getId());
+        long v = version.incrementAndGet();
+        shards.removed(e, v);
+        expenseOrder.remove(e);
+        if (expenseText != null) expenseText.remove(e);
+        if (publishing(Part.EXPENSES)) changes.publish(new StoreEvent.ExpenseRemoved(v, e));
+        return e;
+    }
+
+    /**
+     * id → 메모리 목록 위치. 구매일로 그 달 덩어리를 바로 찾고 그 안만 훑는다.
+     * 읽힌 달에 없으면 남은 달을 모두 읽어 본다(쓰기 잠금 아래서만 읽게 된다).
+     */
+    private int expenseRow(long id) {
+        int day = expenseDays.get(id, NO_DAY);
+        if (day == NO_DAY && !shards.allLoaded()) {
+            loadShards(shards.unloaded(ym -> true));
+            day = expenseDays.get(id, NO_DAY);
+        }
+        if (day == NO_DAY) throw new NotFoundException("존재하지 않는 소비 항목 id: " + id);
+        YearMonth ym = YearMonth.from(LocalDate.ofEpochDay(day));
+        int start = shards.memoryStart(ym), end = start + shards.count(ym);
+        if (expenseColumns != null) {
+            for (int row = start; row < end; row++) if (expenseColumns.id(row) == id) return row;
+        } else {
+            int row = start;
+            for (Expense e : expenseList.subList(start, end)) { // 트리를 한 번만 내려가 덩어리를 차례로 훑는다
+                if (e.getId() == id) return row;
+                row++;
+            }
+        }
+        throw new IllegalStateException("소비 id 색인이 목록과 어긋남: " + id);
+    }
+
+    private void checkExpenseIndex(int idx) {
+        if (idx < 0 || idx >= shards.total())
             throw new NotFoundException("존재하지 않는 소비 항목 번호: " + (idx + 1));
-        expenses.remove(idx);
+    }
+
+    /** 전체 번호 → 메모리 목록 위치. 그 달이 안 읽혔으면 읽는다(쓰기 잠금 아래서만 읽게 된다). */
+    private int memoryIndex(int idx) {
+        if (shards.allLoaded()) return idx;
+        int[] within = new int[1];
+        YearMonth ym = shards.locate(idx, within);
+        loadShards(shards.unloaded(ym::equals));
+        return shards.memoryStart(ym) + within[0];
+    }
+
+    /** need에 맞는 안 읽은 달이 있으면 쓰기 잠금을 잡고 읽어 온다. 다 읽혔으면 잠금 없이 지나간다. */
+    private void ensureLoaded(Predicate<YearMonth> need) {
+        if (shards.allLoaded()) return;
+        write(expenseLock, () -> loadShards(shards.unloaded(need)));
+    }
+
+    private void ensureAllLoaded() { ensureLoaded(ym -> true); }
+
+    /** 구간 [from, toExclusive)에 걸치는 달만 */
+    private void ensureLoaded(LocalDate from, LocalDate toExclusive) {
+        ensureLoaded(ym -> !ym.atEndOfMonth().isBefore(from) && ym.atDay(1).isBefore(toExclusive));
+    }
+
+    /**
+     * 쓰기 잠금 아래서: 달(오름차순)마다 자기 덩어리 자리에 끼워 넣고 색인한다.
+     * id가 없거나 겹치는 행은 새 id를 주고 그 달을 "바뀜"으로 표시해 다음 저장 때 고쳐 쓰이게 한다.
+     */
+    private void loadShards(List<YearMonth> months) {
+        for (YearMonth ym : months) {
+            List<Expense> rows = shards.load(ym);
+            long assigned = 0;
+            for (Expense e : rows) {
+                if (assignId(e, expenseDays::containsKey)) assigned = e.getId();
+                expenseDays.put(e.getId(), (int) e.getPurchaseDate().toEpochDay());
+            }
+            if (assigned > 0) shards.idsAssigned(ym, assigned, version.get());
+            expenses.addAll(shards.memoryStart(ym), rows);
+            if (!loading(Part.EXPENSES)) expenseOrder.addAll(rows); else expenseOrder.invalidate();
+            if (expenseText != null) for (Expense e : rows) expenseText.add(e);
+        }
+    }
+
+    /** 저장이 끝난 달의 "바뀜" 표시를 지운다(stamps는 스냅숏의 expenseShards()). 고정한 뒤 다시 바뀐 달은 남는다. */
+    public void expenseShardsSaved(Map<YearMonth, Long> stamps) {
+        write(expenseLock, () -> shards.saved(stamps));
+    }
+
+    // 정렬 조회는 유지 중인 정렬 색인의 고정판 위 구간 뷰를 돌려준다(복사/정렬 없이, 순회하는 만큼만 읽음).
+
+    /** 구매일 오름차순 (같은 날은 등록 순서) */
+    public List<Expense> expensesSortedByDate() {
+        ensureAllLoaded();
+        return sortedExpenses().byDate();
+    }
+
+    /** 금액 내림차순 (같은 금액은 등록 순서) */
+    public List<Expense> expensesSortedByPriceDesc() {
+        ensureAllLoaded();
+        return sortedExpenses().byPriceDesc();
+    }
+
+    /** 가장 비싼 k개 (금액 내림차순) */
+    public List<Expense> topExpensesByPrice(int k) {
+        ensureAllLoaded();
+        return sortedExpenses().topByPrice(k);
+    }
+
+    /** [from, toExclusive) 구매일 구간, 날짜순 (걸치는 달만 읽는다) */
+    public List<Expense> expensesBetween(LocalDate from, LocalDate toExclusive) {
+        ensureLoaded(from, toExclusive);
+        return sortedExpenses().between(from, toExclusive);
+    }
+
+    /** min ≤ 금액 ≤ max, 금액 내림차순 */
+    public List<Expense> expensesPricedBetween(int min, int max) {
+        ensureAllLoaded();
+        return sortedExpenses().pricedBetween(min, max);
+    }
+
+    private ExpenseSortIndex.Sorted sortedExpenses() { return read(expenseLock, expenseOrder::pin); }
+
+    /**
+     * 목록 화면용 페이지 커서. kw(소문자)가 제목이나 분류에 들어간 것만 (빈 문자열이면 전체), sort 순서로.
+     * 검색어 없이 정렬만 하면 정렬 색인의 고정판에서 보이는 페이지만 읽는다.
+     * 열 저장 모드는 행 번호만 정렬해 두고 page()에서 고정판의 보이는 행만 만든다(잠금 없이).
+     */
+    public PagedView<Expense> expenseView(String kw, ExpenseSort sort) {
+        ensureAllLoaded();
+        return read(expenseLock, () -> {
+            long v = version.get();
+            if (kw.isEmpty() && sort != ExpenseSort.REGISTERED) {
+                ExpenseSortIndex.Sorted sorted = expenseOrder.pin();
+                return PagedView.of(sort == ExpenseSort.DATE ? sorted.byDate() : sorted.byPriceDesc(), v);
+            }
+            if (expenseColumns != null) {
+                int[] rows = kw.isEmpty() ? null : expenseColumns.rowsMatching(kw);
+                int[] order = switch (sort) {
+                    case DATE -> expenseColumns.rowsByDate(rows);
+                    case PRICE_DESC -> expenseColumns.rowsByPriceDesc(rows);
+                    case REGISTERED -> rows;
+                };
+                ExpenseColumns pinned = expenseColumns.snapshot();
+                int n = order == null ? pinned.size() : order.length;
+                return new PagedView<>(n, v, (from, to) -> pinned.materialize(order, from, to));
+            }
+            if (kw.isEmpty()) return PagedView.of(pinExpenses(), v);
+            List<Expense> rows = expenseText.searchAny(kw);
+            switch (sort) {
+                case DATE -> rows.sort(Comparator.comparing(Expense::getPurchaseDate));
+                case PRICE_DESC -> rows.sort(Comparator.comparingInt(Expense::getPrice).reversed());
+                case REGISTERED -> { }
+            }
+            return PagedView.of(rows, v);
+        });
+    }
+
+    /** 제목에 kw(소문자)가 들어간 소비 내역 */
+    public List<Expense> searchExpensesByTitle(String kw) {
+        ensureAllLoaded();
+        return read(expenseLock, () -> expenseText != null
+                ? expenseText.search(EXPENSE_TITLE, kw) : scanExpenses(Expense::getTitle, kw));
+    }
+
+    /** 분류에 kw(소문자)가 들어간 소비 내역 */
+    public List<Expense> searchExpensesByCategory(String kw) {
+        ensureAllLoaded();
+        return read(expenseLock, () -> expenseText != null
+                ? expenseText.search(EXPENSE_CATEGORY, kw) : scanExpenses(Expense::getCategory, kw));
+    }
+
+    private List<Expense> scanExpenses(Function<Expense, String> field, String kw) {
+        List<Expense> out = new ArrayList<>();
+        for (Expense e : expenses) {
+            String v = field.apply(e);
+            if (v != null && v.toLowerCase(Locale.ROOT).contains(kw)) out.add(e);
+        }
+        return out;
+    }
+
+    /** 월 합계 (조각 요약에서 O(log 달 수), 조각을 읽지 않는다) */
+    public long expenseTotalOf(YearMonth ym) {
+        return read(expenseLock, () -> shards.totalOf(ym));
     }
 
     // ------------------- Project -------------------
-    public List<Project> getProjects() { return projects; }
 
+    /** 지금 시점의 프로젝트 (읽기 전용 고정판, 등록 순서) */
+    public List<Project> getProjects() { return read(projectLock, projects::snapshot); }
+
+    public int projectCount() { return read(projectLock, projects::size); }
+
+    /** id가 없으면(0) 새로 준다. */
+    public void addProject(Project p) {
+        write(projectLock, () -> {
+            assignId(p, projects::contains);
+            projects.add(p);
+            long v = version.incrementAndGet();
+            projectText.add(p);
+            if (!loading(Part.PROJECTS)) aggregates.projectAdded(p);
+            if (publishing(Part.PROJECTS)) changes.publish(new StoreEvent.ProjectAdded(v, p));
+        });
+    }
+
+    /** 가져오기용: 잠금/버전 한 번으로 모두 추가하고 색인·집계는 끝에 갱신한다. */
+    public void addProjects(Collection<Project> batch) {
+        if (batch.isEmpty()) return;
+        write(projectLock, () -> {
+            for (Project p : batch) {
+                assignId(p, projects::contains);
+                projects.add(p);
+            }
+            long v = version.incrementAndGet();
+            for (Project p : batch) projectText.add(p);
+            if (!loading(Part.PROJECTS)) for (Project p : batch) aggregates.projectAdded(p);
+            if (publishing(Part.PROJECTS)) for (Project p : batch) changes.publish(new StoreEvent.ProjectAdded(v, p));
+        });
+    }
+
+    public void clearProjects() {
+        write(projectLock, () -> {
+            projects.clear();
+            long v = version.incrementAndGet();
+            projectText.clear();
+            aggregates.rebuildProjects(projects);
+            if (publishing(Part.PROJECTS)) changes.publish(new StoreEvent.Reset(v, Part.PROJECTS));
+        });
+    }
+
+    /**
+     * 고정판이 들고 있는 객체를 건드리지 않도록 제자리에서 고치지 않고, 같은 id의 새 객체로 갈아 끼운다.
+     * 바뀐 프로젝트를 돌려준다.
+     */
+    public Project changeProjectStatusById(long id, String newStatus) {
+        return write(projectLock, () -> {
+            Project old = projectById(id);
+            Project p = new Project(old.getTitle(), newStatus, old.getOwner(), old.getStartDate(), old.getDueDate());
+            p.setId(id);
+            projects.replace(p);
+            long v = version.incrementAndGet();
+            projectText.remove(old);
+            projectText.add(p);
+            if (!loading(Part.PROJECTS)) aggregates.projectStatusChanged(old.getStatus(), newStatus);
+            if (publishing(Part.PROJECTS)) changes.publish(new StoreEvent.ProjectStatusChanged(v, old, p));
+            return p;
+        });
+    }
+
+    /** 상태별 프로젝트 수 (집계에서 O(1)) */
+    public int projectCountByStatus(String status) {
+        return read(projectLock, () -> aggregates.projectCount(status));
+    }
+
+    /** 제목/담당자/상태 중 하나라도 kw(소문자)를 포함하는 프로젝트 (등록 순서) */
+    public List<Project> searchProjects(String kw) { return read(projectLock, () -> projectText.searchAny(kw)); }
+
+    /** 목록 화면용 페이지 커서 (kw가 비면 전체, byDueDate면 마감일순) */
+    public PagedView<Project> projectView(String kw, boolean byDueDate) {
+        return read(projectLock, () -> {
+            List<Project> rows = kw.isEmpty() ? projects.list() : projectText.searchAny(kw);
+            if (byDueDate) rows.sort(Comparator.comparing(Project::getDueDate));
+            return PagedView.of(rows, version.get());
+        });
+    }
+
+    /** 등록 순서 번호로 (지운 자리는 건너뛰고 센다) */
     public Project getProject(int idx) {
-        if (idx < 0 || idx >= projects.size())
-            throw new NotFoundException("존재하지 않는 프로젝트 번호: " + (idx + 1));
-        return projects.get(idx);
+        return read(projectLock, () -> {
+            checkProjectIndex(idx);
+            return projects.at(idx);
+        });
+    }
+
+    public Project getProjectById(long id) { return read(projectLock, () -> projectById(id)); }
+
+    /** id 확인과 삭제를 한 번에 한다. 뒤쪽 항목은 밀지 않는다(툼스톤). */
+    public Project removeProjectById(long id) {
+        return write(projectLock, () -> {
+            Project p = projectById(id);
+            projects.remove(id);
+            long v = version.incrementAndGet();
+            projectText.remove(p);
+            if (!loading(Part.PROJECTS)) aggregates.projectRemoved(p);
+            if (publishing(Part.PROJECTS)) changes.publish(new StoreEvent.ProjectRemoved(v, p));
+            return p;
+        });
     }
 
-    public void removeProject(int idx) {
+    private void checkProjectIndex(int idx) {
         if (idx < 0 || idx >= projects.size())
             throw new NotFoundException("존재하지 않는 프로젝트 번호: " + (idx + 1));
-        projects.remove(idx);
+    }
+
+    private Project projectById(long id) {
+        Project p = projects.get(id);
+        if (p == null) throw new NotFoundException("존재하지 않는 프로젝트 id: " + id);
+        return p;
+    }
+
+    // ------------------- id -------------------
+
+    /**
+     * id가 없거나 이미 쓰인 id면 새 id를 준다(새로 줬으면 true). 저장돼 있던 id면 다음 id가 그보다 커지도록 올린다.
+     * 안 읽은 조각의 id는 조각 목록의 달별 최대 id로 미리 올려 두므로 겹치지 않는다.
+     */
+    private boolean assignId(Work w, LongPredicate taken) {
+        long id = w.getId();
+        if (id > 0 && !taken.test(id)) {
+            lastId.accumulateAndGet(id, Math::max);
+            return false;
+        }
+        w.setId(lastId.incrementAndGet());
+        return true;
     }
 
     // ------------------- Schedule (Map) -------------------
+    // 키는 일정 이름이다. 등록 순서는 칸 목록(VersionedList)이 들고, 날짜순은 날짜 색인이 든다.
     public Schedule getSchedule(String key) {
-        Schedule s = schedules.get(key);
+        Schedule s = read(scheduleLock, () -> scheduleOf(key));
         if (s == null) throw new NotFoundException("존재하지 않는 일정 키: " + key);
         return s;
     }
 
-    public void putSchedule(String key, Schedule schedule) { schedules.put(key, schedule); }
-    public Map<String, Schedule> getSchedules() { return schedules; }
+    public boolean containsSchedule(String key) { return read(scheduleLock, () -> scheduleSlots.containsKey(key)); }
+
+    public int scheduleCount() { return read(scheduleLock, scheduleSlots::size); }
+
+    /** 같은 키가 있으면 그 자리(등록 순서)에서 바꾼다. */
+    public void putSchedule(String key, Schedule schedule) {
+        write(scheduleLock, () -> {
+            Integer slot = scheduleSlots.get(key);
+            Schedule replaced = slot == null ? null : schedules.set(slot, schedule);
+            if (replaced != null) unindexSchedule(replaced);
+            else appendSchedule(key, schedule);
+            long v = version.incrementAndGet();
+            indexSchedule(schedule);
+            if (publishing(Part.SCHEDULES)) changes.publish(new StoreEvent.SchedulePut(v, key, schedule, replaced));
+        });
+    }
+
+    /** 키가 비어 있을 때만 넣는다(확인과 추가를 한 번에). 넣었으면 true. */
+    public boolean putScheduleIfAbsent(String key, Schedule schedule) {
+        return write(scheduleLock, () -> {
+            if (scheduleSlots.containsKey(key)) return false;
+            appendSchedule(key, schedule);
+            long v = version.incrementAndGet();
+            indexSchedule(schedule);
+            if (publishing(Part.SCHEDULES)) changes.publish(new StoreEvent.SchedulePut(v, key, schedule, null));
+            return true;
+        });
+    }
+
+    /**
+     * 가져오기용: 이름이 이미 있는(또는 batch 안에서 앞에 나온) 일정은 건너뛰고 나머지를 한 번에 넣는다.
+     * 건너뛴 항목의 batch 안 위치를 돌려준다. 날짜 색인은 비어 있으면 정렬 후 한 번에 쌓는다.
+     */
+    public BitSet putSchedulesIfAbsent(List<Schedule> batch) {
+        return write(scheduleLock, () -> {
+            BitSet skipped = new BitSet();
+            List<Schedule> added = new ArrayList<>(batch.size());
+            int slot = schedules.size();
+            for (int i = 0; i < batch.size(); i++) {
+                Schedule s = batch.get(i);
+                if (scheduleSlots.putIfAbsent(s.getName(), slot) == null) { added.add(s); slot++; }
+                else skipped.set(i);
+            }
+            if (!added.isEmpty()) {
+                schedules.addAll(added);
+                long v = version.incrementAndGet();
+                schedulesByDate.addAll(added);
+                for (Schedule s : added) if (s.isRecurring()) recurringByDate.add(s);
+                if (publishing(Part.SCHEDULES))
+                    for (Schedule s : added) changes.publish(new StoreEvent.SchedulePut(v, s.getName(), s, null));
+            }
+            return skipped;
+        });
+    }
+
+    public void clearSchedules() {
+        write(scheduleLock, () -> {
+            scheduleSlots.clear();
+            schedules.clear();
+            deadSchedules = 0;
+            long v = version.incrementAndGet();
+            schedulesByDate.clear();
+            recurringByDate.clear();
+            if (publishing(Part.SCHEDULES)) changes.publish(new StoreEvent.Reset(v, Part.SCHEDULES));
+        });
+    }
+
+    /** 지금 시점의 일정 사본 (등록 순서, 읽기 전용) */
+    public Map<String, Schedule> getSchedules() {
+        List<Schedule> live = read(scheduleLock, () -> schedules.snapshot().present());
+        Map<String, Schedule> out = new LinkedHashMap<>();
+        for (Schedule s : live) out.put(s.getName(), s);
+        return Collections.unmodifiableMap(out);
+    }
 
-    // 조회용 인덱스 접근 (values 순서 기준)
+    // 조회용 번호 접근 (날짜순 기준)
     public Schedule getSchedule(int idx) {
-        if (idx < 0 || idx >= schedules.size())
-            throw new NotFoundException("존재하지 않는 일정 번호: " + (idx + 1));
-        return new ArrayList<>(schedules.values()).get(idx);
+        return read(scheduleLock, () -> {
+            checkScheduleIndex(idx);
+            return schedulesByDate.get(idx);
+        });
+    }
+
+    public Schedule removeSchedule(String key) {
+        Schedule s = write(scheduleLock, () -> {
+            Schedule removed = dropSchedule(key);
+            if (removed != null) {
+                unindexSchedule(removed);
+                long v = version.incrementAndGet();
+                if (publishing(Part.SCHEDULES)) changes.publish(new StoreEvent.ScheduleRemoved(v, key, removed));
+            }
+            return removed;
+        });
+        if (s == null) throw new NotFoundException("존재하지 않는 일정 키: " + key);
+        return s;
     }
 
-    public void removeSchedule(String key) {
-        if (!schedules.containsKey(key))
-            throw new NotFoundException("존재하지 않는 일정 키: " + key);
-        schedules.remove(key);
+    public Schedule removeSchedule(int idx) {
+        return write(scheduleLock, () -> {
+            checkScheduleIndex(idx);
+            Schedule s = schedulesByDate.get(idx);
+            dropSchedule(s.getName());
+            unindexSchedule(s);
+            long v = version.incrementAndGet();
+            if (publishing(Part.SCHEDULES)) changes.publish(new StoreEvent.ScheduleRemoved(v, s.getName(), s));
+            return s;
+        });
     }
 
-    public void removeSchedule(int idx) {
-        if (idx < 0 || idx >= schedules.size())
+    private void checkScheduleIndex(int idx) {
+        if (idx < 0 || idx >= scheduleSlots.size())
             throw new NotFoundException("존재하지 않는 일정 번호: " + (idx + 1));
-        String key = new ArrayList<>(schedules.keySet()).get(idx);
-        schedules.remove(key);
+    }
+
+    private void indexSchedule(Schedule s) {
+        schedulesByDate.add(s);
+        if (s.isRecurring()) recurringByDate.add(s);
+    }
+
+    private void unindexSchedule(Schedule s) {
+        schedulesByDate.remove(s);
+        if (s.isRecurring()) recurringByDate.remove(s);
+    }
+
+    private Schedule scheduleOf(String key) {
+        Integer slot = scheduleSlots.get(key);
+        return slot == null ? null : schedules.get(slot);
+    }
+
+    private void appendSchedule(String key, Schedule schedule) {
+        scheduleSlots.put(key, schedules.size());
+        schedules.add(schedule);
+    }
+
+    /** 칸을 비운다(뒤쪽 칸 번호는 그대로). 빈 칸이 살아 있는 수보다 많아지면 당겨서 번호를 다시 매긴다. */
+    private Schedule dropSchedule(String key) {
+        Integer slot = scheduleSlots.remove(key);
+        if (slot == null) return null;
+        Schedule removed = schedules.set(slot, null);
+        if (++deadSchedules >= 64 && deadSchedules > scheduleSlots.size()) {
+            List<Schedule> live = new ArrayList<>(schedules.snapshot().present());
+            schedules.clear();
+            schedules.addAll(live);
+            for (int i = 0; i < live.size(); i++) scheduleSlots.put(live.get(i).getName(), i);
+            deadSchedules = 0;
+        }
+        return removed;
+    }
+
+    /**
+     * 목록 화면용 페이지 커서. kw(소문자)가 이름이나 메모에 들어간 것만 (빈 문자열이면 전체).
+     * 필터 없이 날짜순이면 날짜 색인에서 페이지만큼만 바로 꺼낸다.
+     */
+    public PagedView<Schedule> scheduleView(String kw, boolean byDate) {
+        return read(scheduleLock, () -> {
+            long v = version.get();
+            if (kw.isEmpty() && byDate)
+                return new PagedView<>(schedulesByDate.size(), v, (from, to) ->
+                        read(scheduleLock, () -> schedulesByDate.slice(from, to)));
+            List<Schedule> rows = new ArrayList<>();
+            for (Schedule s : byDate ? schedulesByDate : schedules.snapshot().present()) {
+                if (kw.isEmpty() || contains(s.getName(), kw) || contains(s.getMemo(), kw)) rows.add(s);
+            }
+            return PagedView.of(rows, v);
+        });
+    }
+
+    private static boolean contains(String v, String kw) {
+        return v != null && v.toLowerCase(Locale.ROOT).contains(kw);
+    }
+
+    /**
+     * 날짜 [from, toExclusive) 구간의 일정 회차를 날짜순으로 하나씩 꺼내는 커서 (toExclusive가 null이면 끝 없음).
+     * 색인을 고정해 두고 잠금 밖에서 돌며, 반복 일정은 구간 안 회차만 꺼낼 때 만든다. 남은 일수는 today 기준.
+     */
+    public Iterator<ScheduleOccurrence> scheduleOccurrences(LocalDate from, LocalDate toExclusive, LocalDate today) {
+        return read(scheduleLock, () -> new OccurrenceCursor(
+                schedulesByDate.snapshot(), recurringByDate.snapshot(), from, toExclusive, today));
+    }
+
+    // ------------------- 잠금 도우미 -------------------
+    private static <T> T read(ReadWriteLock lock, Supplier<T> body) {
+        lock.readLock().lock();
+        try { return body.get(); }
+        finally { lock.readLock().unlock(); }
+    }
+
+    private static <T> T write(ReadWriteLock lock, Supplier<T> body) {
+        lock.writeLock().lock();
+        try { return body.get(); }
+        finally { lock.writeLock().unlock(); }
+    }
+
+    private static void write(ReadWriteLock lock, Runnable body) {
+        lock.writeLock().lock();
+        try { body.run(); }
+        finally { lock.writeLock().unlock(); }
     }
 }
@@ -0,0 +1,352 @@
+package service;
+
+import model.Project;
+import model.Schedule;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 프로젝트 마감일/일정 날짜를 지켜보다가 "마감 임박"과 "마감 지남" 이벤트를 보내는 엔진.
+ * 하루 = 1틱인 해시 타이머 휠(WHEEL_DAYS칸)에 타이머를 걸고, 그보다 먼 타이머는 우선순위 큐에 두었다가
+ * 휠 범위 안으로 들어오면 옮긴다. 틱 한 번의 비용은 그날 울리는 타이머 수에만 비례한다.
+ * 취소는 표시만 해 두고(지연 삭제) 울릴 때 건너뛴다.
+ * 프로젝트는 상태가 바뀌면 같은 id의 새 객체로 갈아 끼워지므로 id로, 일정은 객체 자체로 구분한다.
+ * 반복 일정은 다음 회차 하나만 걸어 두고, 그 회차가 지나면 그다음 회차로 다시 건다.
+ * 백그라운드 스레드 하나가 자정마다 깨어나 틱을 진행하고, 리스너는 그 스레드에서 불린다.
+ * start(store) 뒤로는 저장소 변경 이벤트를 구독해 바뀐 항목만 다시 걸므로 화면에서 따로 track할 필요가 없다.
+ */
+public class DeadlineEngine implements AutoCloseable {
+
+    private static final int WHEEL_DAYS = 256;           // 2의 거듭제곱
+    private static final int MASK = WHEEL_DAYS - 1;
+    private static final long MAX_WAIT_NANOS = TimeUnit.HOURS.toNanos(1); // 시계 변경/절전 복귀 대비
+    private static final String DONE = "완료";
+
+    public enum Type { DUE_SOON, OVERDUE }
+
+    /** 발생한 마감 이벤트. kind는 "프로젝트" 또는 "일정". */
+    public record DeadlineEvent(Type type, String kind, String title, LocalDate due) {
+        public String message() {
+            return type == Type.DUE_SOON
+                    ? "⏰ " + kind + " '" + title + "' 마감 임박 (" + due + ")"
+                    : "⚠️ " + kind + " '" + title + "' 마감 지남 (" + due + ")";
+        }
+    }
+
+    private static final class Timer {
+        final Object item; // key(항목)
+        final DeadlineEvent event;
+        final long fireDay;
+        boolean cancelled;
+
+        Timer(Object item, DeadlineEvent event, long fireDay) {
+            this.item = item;
+            this.event = event;
+            this.fireDay = fireDay;
+        }
+    }
+
+    private final Clock clock;
+    private final int leadDays;
+    private final List<Consumer<DeadlineEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition wake = lock.newCondition();
+    @SuppressWarnings("unchecked")
+    private final List<Timer>[] wheel = (List<Timer>[]) new List<?>[WHEEL_DAYS];
+    private final PriorityQueue<Timer> far = new PriorityQueue<>(Comparator.comparingLong(t -> t.fireDay));
+    private final List<Timer> due = new ArrayList<>();           // 등록할 때 이미 지난 타이머: 다음 처리 때 바로
+    private final Map<Object, List<Timer>> byItem = new HashMap<>(); // key(항목) → 타이머 (모델은 equals가 없어 객체 자체는 동일성 비교)
+    private long currentDay;
+    private int live;
+    private final List<Schedule> rearm = new ArrayList<>(); // "지남"이 울린 반복 일정 (잠금 아래서, 틱 안에서만)
+
+    private Thread thread;
+    private volatile boolean running;
+    private Follower follower;
+
+    /** leadDays: 마감 며칠 전에 "마감 임박"을 알릴지 */
+    public DeadlineEngine(Clock clock, int leadDays) {
+        this.clock = clock;
+        this.leadDays = Math.max(leadDays, 0);
+        this.currentDay = LocalDate.now(clock).toEpochDay();
+        for (int i = 0; i < WHEEL_DAYS; i++) wheel[i] = new ArrayList<>();
+    }
+
+    public DeadlineEngine() { this(Clock.systemDefaultZone(), 3); }
+
+    public void addListener(Consumer<DeadlineEvent> l) { listeners.add(l); }
+
+    /**
+     * 저장소 변경을 구독하고, 지금의 진행 중인 프로젝트와 모든 일정을 등록한 뒤 백그라운드 스레드를 시작한다.
+     * 첫 등록은 구독 스레드에서 하고 여기서는 그것이 끝날 때까지 기다린다.
+     */
+    public void start(DataStore store) {
+        follower = new Follower(store);
+        store.changes().subscribe(follower);
+        try { follower.ready.await(); }
+        catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        running = true;
+        thread = new Thread(this::run, "deadline-engine");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** 프로젝트를 (다시) 등록한다. 완료 상태면 지켜보지 않는다. 상태/마감일이 바뀐 뒤에도 부른다. */
+    public void track(Project p) {
+        if (DONE.equals(p.getStatus()) || p.getDueDate() == null) { untrack(p); return; }
+        register(p, "프로젝트", p.getTitle(), p.getDueDate());
+    }
+
+    /** 일정을 (다시) 등록한다. 반복 일정은 엔진의 오늘 이후 첫 회차를 건다(끝난 반복이면 해제). */
+    public void track(Schedule s) {
+        LocalDate date = s.getDate();
+        if (date != null && s.isRecurring()) {
+            lock.lock();
+            try { date = s.getRecurrence().firstOnOrAfter(date, LocalDate.ofEpochDay(currentDay)); }
+            finally { lock.unlock(); }
+        }
+        if (date == null) { untrack(s); return; }
+        register(s, "일정", s.getName(), date);
+    }
+
+    /** 삭제된 항목의 타이머를 취소한다. O(그 항목의 타이머 수) */
+    public void untrack(Object item) {
+        lock.lock();
+        try {
+            List<Timer> timers = byItem.remove(key(item));
+            if (timers == null) return;
+            for (Timer t : timers) {
+                if (!t.cancelled) { t.cancelled = true; live--; }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 자정을 기다리지 않고 지금 날짜로 바로 다시 계산한다 (절전 복귀, 시계 변경 등). */
+    public void wakeUp() {
+        lock.lock();
+        try { wake.signal(); }
+        finally { lock.unlock(); }
+    }
+
+    /** 아직 울리지 않은 타이머 수 */
+    public int pending() {
+        lock.lock();
+        try { return live; }
+        finally { lock.unlock(); }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (follower != null) follower.cancel();
+        if (thread == null) return;
+        thread.interrupt();
+        try { thread.join(); }
+        catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    // ------------------- 저장소 구독 -------------------
+
+    /**
+     * 저장소 변경을 한 묶음씩 받아 바뀐 항목만 다시 건다. 한 구독 안에서는 순서대로 하나씩 불린다.
+     * Reset/Resync면 타이머를 모두 내리고 고정판으로 다시 걸며, 그 판에 이미 들어 있는(버전 이하) 이벤트는 건너뛴다.
+     */
+    private final class Follower implements Flow.Subscriber<List<StoreEvent>> {
+        private final DataStore store;
+        private final CountDownLatch ready = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+        private long seen; // 이 버전까지는 다시 건 판에 들어 있다
+
+        Follower(DataStore store) { this.store = store; }
+
+        @Override
+        public void onSubscribe(Flow.Subscription s) {
+            subscription = s;
+            if (cancelled) { s.cancel(); ready.countDown(); return; }
+            try { resync(); }
+            finally { ready.countDown(); }
+            s.request(1);
+        }
+
+        @Override
+        public void onNext(List<StoreEvent> batch) {
+            try {
+                for (StoreEvent e : batch) {
+                    if (e.version() <= seen) continue;
+                    switch (e) {
+                        case StoreEvent.ProjectAdded a -> track(a.project());
+                        case StoreEvent.ProjectStatusChanged c -> track(c.after());
+                        case StoreEvent.ProjectRemoved r -> untrack(r.project());
+                        case StoreEvent.SchedulePut put -> {
+                            if (put.replaced() != null) untrack(put.replaced());
+                            track(put.schedule());
+                        }
+                        case StoreEvent.ScheduleRemoved r -> untrack(r.schedule());
+                        case StoreEvent.Reset r -> { if (r.part() != DataStore.Part.EXPENSES) resync(); }
+                        case StoreEvent.Resync r -> resync();
+                        default -> { } // 소비 내역은 마감과 상관없다
+                    }
+                }
+            } catch (RuntimeException ex) {
+                ex.printStackTrace(); // 한 건 때문에 구독을 끊지 않는다
+            }
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable t) { t.printStackTrace(); }
+
+        @Override
+        public void onComplete() { }
+
+        void cancel() {
+            cancelled = true;
+            Flow.Subscription s = subscription;
+            if (s != null) s.cancel();
+        }
+
+        /** 타이머를 모두 내리고 지금 고정판으로 다시 건다 */
+        private void resync() {
+            StoreSnapshot snap = store.snapshot();
+            lock.lock();
+            try {
+                for (List<Timer> timers : byItem.values()) {
+                    for (Timer t : timers) t.cancelled = true;
+                }
+                byItem.clear();
+                live = 0;
+            } finally {
+                lock.unlock();
+            }
+            for (Project p : snap.projects()) track(p);
+            for (Schedule s : snap.schedules()) track(s);
+            seen = snap.version();
+        }
+    }
+
+    // ------------------- 등록 -------------------
+    private void register(Object item, String kind, String title, LocalDate dueDate) {
+        long dueDay = dueDate.toEpochDay();
+        Object key = key(item);
+        lock.lock();
+        try {
+            untrack(item); // 재진입 잠금
+            List<Timer> timers = new ArrayList<>(2);
+            long soonDay = dueDay - leadDays;
+            // 이미 지난 항목은 "지남"만, 임박 구간 안이면 "임박"부터
+            if (dueDay >= currentDay) timers.add(new Timer(key, new DeadlineEvent(Type.DUE_SOON, kind, title, dueDate), soonDay));
+            timers.add(new Timer(key, new DeadlineEvent(Type.OVERDUE, kind, title, dueDate), dueDay + 1));
+            for (Timer t : timers) schedule(t);
+            byItem.put(key, timers);
+            live += timers.size();
+            if (!due.isEmpty()) wake.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** 타이머 표의 키: id가 있는 프로젝트는 id, 그 밖에는 객체 자체 */
+    private static Object key(Object item) {
+        return item instanceof Project p && p.getId() > 0 ? (Object) p.getId() : item;
+    }
+
+    private void schedule(Timer t) {
+        if (t.fireDay <= currentDay) due.add(t);
+        else if (t.fireDay - currentDay < WHEEL_DAYS) wheel[(int) (t.fireDay & MASK)].add(t);
+        else far.add(t);
+    }
+
+    // ------------------- 틱 -------------------
+    private void run() {
+        while (running) {
+            List<DeadlineEvent> fired;
+            lock.lock();
+            try {
+                fired = advanceTo(LocalDate.now(clock).toEpochDay());
+                for (Schedule s : rearm) rearm(s); // 같은 잠금 안에서: 그사이 삭제된 일정이 되살아나지 않게
+                rearm.clear();
+            } finally {
+                lock.unlock();
+            }
+            for (DeadlineEvent e : fired) {
+                for (Consumer<DeadlineEvent> l : listeners) {
+                    try { l.accept(e); }
+                    catch (RuntimeException ex) { ex.printStackTrace(); } // 리스너 오류로 엔진이 멈추지 않게
+                }
+            }
+            lock.lock();
+            try {
+                if (due.isEmpty() && running) wake.awaitNanos(nanosUntilMidnight());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /** 잠금을 잡은 채 호출. today까지 하루씩 휠을 돌리며 울린 이벤트를 모은다. */
+    private List<DeadlineEvent> advanceTo(long today) {
+        List<DeadlineEvent> fired = new ArrayList<>();
+        fire(due, fired);
+        due.clear();
+        while (currentDay < today) {
+            currentDay++;
+            List<Timer> slot = wheel[(int) (currentDay & MASK)];
+            fire(slot, fired);
+            slot.clear();
+            // 휠 범위 끝에 새로 들어온 날의 타이머를 큐에서 옮긴다
+            while (!far.isEmpty() && far.peek().fireDay - currentDay < WHEEL_DAYS) {
+                Timer t = far.poll();
+                if (!t.cancelled) schedule(t);
+            }
+        }
+        return fired;
+    }
+
+    private void fire(List<Timer> timers, List<DeadlineEvent> out) {
+        for (Timer t : timers) {
+            if (t.cancelled) continue;
+            t.cancelled = true;
+            live--;
+            out.add(t.event);
+            if (t.event.type() == Type.OVERDUE && t.item instanceof Schedule s && s.isRecurring()) {
+                rearm.add(s); // byItem에는 남겨 두고 rearm()에서 갈아 끼운다
+                continue;
+            }
+            List<Timer> mine = byItem.get(t.item);
+            if (mine != null && mine.stream().allMatch(x -> x.cancelled)) byItem.remove(t.item);
+        }
+    }
+
+    /** 잠금을 잡은 채 호출. 지난 회차 다음으로 다시 건다. 그사이 untrack된(byItem에 없는) 일정은 건너뛴다. */
+    private void rearm(Schedule s) {
+        if (!byItem.containsKey(key(s))) return;
+        LocalDate next = s.getRecurrence().firstOnOrAfter(s.getDate(), LocalDate.ofEpochDay(currentDay));
+        if (next == null) untrack(s);
+        else register(s, "일정", s.getName(), next);
+    }
+
+    private long nanosUntilMidnight() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        long nanos = Duration.between(now, midnight).toNanos();
+        return Math.max(1, Math.min(nanos, MAX_WAIT_NANOS));
+    }
+}
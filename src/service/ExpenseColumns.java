@@ -0,0 +1,323 @@
+package service;
+
+import model.Expense;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 소비 내역 열(column) 저장소.
+ * 금액/구매일은 int[]에, 분류/상태는 사전 코드(int[])로 담아 행마다 객체를 두지 않는다.
+ * get(i)는 그 시점 값으로 만든 Expense 사본을 돌려준다(사본을 고쳐도 저장소에는 반영되지 않음).
+ * snapshot()은 배열을 복사하지 않고 같이 쓰는 고정판을 O(1)에 만든다. 그 뒤 원본이 이미 있는 행을 고치면
+ * (바꾸기/지우기/중간 끼워 넣기) 그때 한 번 배열을 복사하고(copy-on-write), 끝에 붙이기는 고정판이 안 보는
+ * 칸에만 쓰므로 복사하지 않는다. 고정판이 버려지면 옛 배열은 GC가 가져간다.
+ */
+class ExpenseColumns extends AbstractList<Expense> implements RandomAccess, RangeAggregator.ExpenseRows {
+
+    private static final int INITIAL = 16;
+
+    private long[] ids = new long[INITIAL];
+    private String[] titles = new String[INITIAL];
+    private int[] prices = new int[INITIAL];
+    private int[] days = new int[INITIAL];       // epoch-day
+    private int[] categories = new int[INITIAL]; // categoryDict 코드
+    private int[] statuses = new int[INITIAL];   // statusDict 코드
+    private int size;
+
+    private final Dictionary categoryDict;
+    private final Dictionary statusDict;
+    private final boolean frozen;  // snapshot()이 만든 고정판
+    private boolean shared;        // 고정판이 지금 배열을 같이 쓰는 중
+
+    ExpenseColumns() {
+        categoryDict = new Dictionary();
+        statusDict = new Dictionary();
+        frozen = false;
+    }
+
+    private ExpenseColumns(ExpenseColumns src) {
+        ids = src.ids;
+        titles = src.titles;
+        prices = src.prices;
+        days = src.days;
+        categories = src.categories;
+        statuses = src.statuses;
+        size = src.size;
+        categoryDict = src.categoryDict.frozen();
+        statusDict = src.statusDict.frozen();
+        frozen = true;
+    }
+
+    /** 지금 행들을 고정한 읽기 전용 판 (O(1), 이후 변경이 보이지 않음). 원본 잠금 아래서 만든다. */
+    ExpenseColumns snapshot() {
+        if (frozen) return this;
+        shared = true;
+        return new ExpenseColumns(this);
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public Expense get(int row) {
+        Objects.checkIndex(row, size);
+        Expense e = new Expense(titles[row], statusDict.value(statuses[row]), prices[row],
+                categoryDict.value(categories[row]), LocalDate.ofEpochDay(days[row]));
+        e.setId(ids[row]);
+        return e;
+    }
+
+    @Override
+    public boolean add(Expense e) {
+        beforeWrite(size);
+        if (size == prices.length) grow();
+        write(size++, e);
+        modCount++;
+        return true;
+    }
+
+    /** 끝에 여러 행을 붙인다. 배열은 한 번만 늘린다. */
+    @Override
+    public boolean addAll(Collection<? extends Expense> batch) {
+        if (batch.isEmpty()) return false;
+        beforeWrite(size);
+        grow(size + batch.size());
+        for (Expense e : batch) write(size++, e);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int row, Expense e) { addAll(row, List.of(e)); }
+
+    /** row 자리에 여러 행을 끼워 넣는다. 뒤쪽 행은 열마다 한 번에 민다. */
+    @Override
+    public boolean addAll(int row, Collection<? extends Expense> batch) {
+        if (row < 0 || row > size) throw new IndexOutOfBoundsException("row " + row + ", size " + size);
+        int n = batch.size();
+        if (n == 0) return false;
+        beforeWrite(row);
+        grow(size + n);
+        int tail = size - row;
+        if (tail > 0) {
+            System.arraycopy(ids, row, ids, row + n, tail);
+            System.arraycopy(titles, row, titles, row + n, tail);
+            System.arraycopy(prices, row, prices, row + n, tail);
+            System.arraycopy(days, row, days, row + n, tail);
+            System.arraycopy(categories, row, categories, row + n, tail);
+            System.arraycopy(statuses, row, statuses, row + n, tail);
+        }
+        for (Expense e : batch) write(row++, e);
+        size += n;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Expense set(int row, Expense e) {
+        Expense old = get(row);
+        beforeWrite(row);
+        write(row, e);
+        return old;
+    }
+
+    @Override
+    public Expense remove(int row) {
+        Expense old = get(row);
+        beforeWrite(row);
+        int tail = size - row - 1;
+        if (tail > 0) {
+            System.arraycopy(ids, row + 1, ids, row, tail);
+            System.arraycopy(titles, row + 1, titles, row, tail);
+            System.arraycopy(prices, row + 1, prices, row, tail);
+            System.arraycopy(days, row + 1, days, row, tail);
+            System.arraycopy(categories, row + 1, categories, row, tail);
+            System.arraycopy(statuses, row + 1, statuses, row, tail);
+        }
+        titles[--size] = null;
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        checkWritable();
+        if (shared) { // 고정판이 옛 배열을 들고 있으니 복사 대신 새 배열로 시작한다
+            ids = new long[INITIAL];
+            titles = new String[INITIAL];
+            prices = new int[INITIAL];
+            days = new int[INITIAL];
+            categories = new int[INITIAL];
+            statuses = new int[INITIAL];
+            shared = false;
+        } else {
+            Arrays.fill(titles, 0, size, null);
+        }
+        size = 0;
+        modCount++;
+    }
+
+    // ------------------- 원시 타입 연산 -------------------
+    // 행 단위 읽기 (객체를 만들지 않는다)
+    long id(int row) { return ids[row]; }
+    @Override public int price(int row) { return prices[row]; }
+    @Override public long day(int row) { return days[row]; }
+    @Override public String category(int row) { return categoryDict.value(categories[row]); }
+    @Override public String status(int row) { return statusDict.value(statuses[row]); }
+
+    /** 구매일 오름차순 행 번호 (같은 날짜는 입력 순서 유지) */
+    int[] rowsByDate() { return rowsByDate(null); }
+
+    /** 주어진 행들(null이면 전체)을 구매일 오름차순으로 */
+    int[] rowsByDate(int[] rows) {
+        int n = rows == null ? size : rows.length;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int r = rows == null ? i : rows[i];
+            keys[i] = ((long) days[r] << 32) | r;
+        }
+        return sortedRows(keys);
+    }
+
+    /** 금액 내림차순 행 번호 (같은 금액은 입력 순서 유지) */
+    int[] rowsByPriceDesc() { return rowsByPriceDesc(null); }
+
+    /** 주어진 행들(null이면 전체)을 금액 내림차순으로 */
+    int[] rowsByPriceDesc(int[] rows) {
+        int n = rows == null ? size : rows.length;
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int r = rows == null ? i : rows[i];
+            keys[i] = (-(long) prices[r] << 32) | r;
+        }
+        return sortedRows(keys);
+    }
+
+    /** 제목이나 분류에 kw(소문자)가 들어간 행 번호 (입력 순서). 분류는 사전 값마다 한 번만 비교한다. */
+    int[] rowsMatching(String kw) {
+        boolean[] categoryHit = categoryDict.matching(kw);
+        int[] out = new int[size];
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (categoryHit[categories[i]] || (titles[i] != null && titles[i].toLowerCase(Locale.ROOT).contains(kw)))
+                out[n++] = i;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** 행 번호 순서대로 Expense 사본 목록을 만든다. */
+    List<Expense> materialize(int[] rows) { return materialize(rows, 0, rows.length); }
+
+    /**
+     * rows[from, to) 행만 사본으로 만든다 (rows가 null이면 행 번호 from~to).
+     * 그사이 행이 지워져 범위를 벗어난 번호는 건너뛴다.
+     */
+    List<Expense> materialize(int[] rows, int from, int to) {
+        List<Expense> out = new ArrayList<>(Math.max(to - from, 0));
+        for (int i = from; i < to; i++) {
+            int r = rows == null ? i : rows[i];
+            if (r < size) out.add(get(r));
+        }
+        return out;
+    }
+
+    private static int[] sortedRows(long[] keys) {
+        Arrays.sort(keys);
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) rows[i] = (int) keys[i]; // 하위 32비트 = 행 번호
+        return rows;
+    }
+
+    private void write(int row, Expense e) {
+        ids[row] = e.getId();
+        titles[row] = e.getTitle();
+        prices[row] = e.getPrice();
+        days[row] = Math.toIntExact(e.getPurchaseDate().toEpochDay());
+        categories[row] = categoryDict.code(e.getCategory());
+        statuses[row] = statusDict.code(e.getStatus());
+    }
+
+    /**
+     * row 이후를 고치기 전에 부른다. 고정판은 고칠 수 없고, 고정판이 보는 행(row < size)을 고치려 하면
+     * 배열을 먼저 복사해 고정판과 떼어 놓는다.
+     */
+    private void beforeWrite(int row) {
+        checkWritable();
+        if (!shared || row >= size) return;
+        int cap = prices.length;
+        ids = Arrays.copyOf(ids, cap);
+        titles = Arrays.copyOf(titles, cap);
+        prices = Arrays.copyOf(prices, cap);
+        days = Arrays.copyOf(days, cap);
+        categories = Arrays.copyOf(categories, cap);
+        statuses = Arrays.copyOf(statuses, cap);
+        shared = false;
+    }
+
+    private void checkWritable() {
+        if (frozen) throw new UnsupportedOperationException("고정된 소비 내역은 고칠 수 없습니다.");
+    }
+
+    private void grow() { grow(prices.length * 2); }
+
+    private void grow(int min) {
+        if (min <= prices.length) return;
+        int cap = Math.max(min, prices.length * 2);
+        ids = Arrays.copyOf(ids, cap);
+        titles = Arrays.copyOf(titles, cap);
+        prices = Arrays.copyOf(prices, cap);
+        days = Arrays.copyOf(days, cap);
+        categories = Arrays.copyOf(categories, cap);
+        statuses = Arrays.copyOf(statuses, cap);
+        shared = false; // 새 배열이라 고정판과 떨어졌다
+    }
+
+    /**
+     * 문자열 ↔ int 코드 사전. 분류/상태처럼 값 종류가 적은 열에 쓴다.
+     * 값 배열은 끝에만 덧붙이므로 고정판은 같은 배열을 자기 개수까지만 읽으면 된다.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes;
+        private String[] values;
+        private int count;
+
+        Dictionary() {
+            codes = new HashMap<>();
+            values = new String[8];
+        }
+
+        private Dictionary(String[] values, int count) {
+            this.codes = null;
+            this.values = values;
+            this.count = count;
+        }
+
+        /** 지금 개수까지만 보는 읽기 전용 사전 */
+        Dictionary frozen() { return new Dictionary(values, count); }
+
+        int code(String value) {
+            Integer c = codes.get(value);
+            if (c != null) return c;
+            if (count == values.length) values = Arrays.copyOf(values, count * 2);
+            values[count] = value;
+            codes.put(value, count);
+            return count++;
+        }
+
+        String value(int code) {
+            Objects.checkIndex(code, count);
+            return values[code];
+        }
+
+        /** 코드별로 값에 kw(소문자)가 들어가는지 */
+        boolean[] matching(String kw) {
+            boolean[] hit = new boolean[count];
+            for (int c = 0; c < hit.length; c++) {
+                String v = values[c];
+                hit[c] = v != null && v.toLowerCase(Locale.ROOT).contains(kw);
+            }
+            return hit;
+        }
+    }
+}
@@ -1,58 +1,133 @@
 package service;
 
-import exceptions.NotFoundException;
 import exceptions.ValidationException;
+import metrics.LatencyTimer;
+import metrics.Metrics;
 import model.Expense;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 public class ExpenseService {
 
+    private static final LatencyTimer ADD = Metrics.timer("expense.add");
+    private static final LatencyTimer REMOVE = Metrics.timer("expense.remove");
+    private static final LatencyTimer SORT_DATE = Metrics.timer("expense.sortByDate");
+    private static final LatencyTimer SORT_PRICE = Metrics.timer("expense.sortByPrice");
+    private static final LatencyTimer TOP = Metrics.timer("expense.topByPrice");
+    private static final LatencyTimer RANGE = Metrics.timer("expense.range");
+    private static final LatencyTimer BROWSE = Metrics.timer("expense.browse");
+    private static final LatencyTimer SEARCH = Metrics.timer("expense.search");
+
     private final DataStore store;
 
     public ExpenseService(DataStore store) { this.store = store; }
 
-    public void addExpense(String title, String category, int price, LocalDate date) {
+    /** 시작 직후 백그라운드 불러오기 중이면 소비 내역이 다 읽힐 때까지 기다린다. */
+    private void ready() { store.awaitLoaded(DataStore.Part.EXPENSES); }
+
+    public Expense addExpense(String title, String category, int price, LocalDate date) {
+        ready();
+        Expense e = newExpense(title, category, price, date);
+        ADD.run(() -> store.addExpense(e));
+        return e;
+    }
+
+    /** 값을 확인해 새 소비 항목을 만든다(저장소에는 넣지 않음). 대량 가져오기도 같은 규칙을 쓴다. */
+    public static Expense newExpense(String title, String category, int price, LocalDate date) {
         if (title == null || title.isBlank()) throw new ValidationException("소비 제목이 비었습니다.");
         if (category == null || category.isBlank()) throw new ValidationException("분류를 입력하세요.");
         if (price < 0) throw new ValidationException("금액은 0 이상이어야 합니다.");
         if (date == null) throw new ValidationException("구매일이 필요합니다.");
-        store.getExpenses().add(new Expense(title, "등록", price, category, date));
+        return new Expense(title, "등록", price, category, date);
     }
 
-    public void removeExpense(int indexZeroBased) {
-        if (indexZeroBased < 0 || indexZeroBased >= store.getExpenses().size())
-            throw new NotFoundException("존재하지 않는 소비 항목 번호: " + (indexZeroBased + 1));
-        store.removeExpense(indexZeroBased);
+    /** id 확인과 삭제는 저장소가 한 번에 한다(없으면 NotFoundException). */
+    public Expense removeExpense(long id) {
+        ready();
+        return REMOVE.time(() -> store.removeExpenseById(id));
     }
 
     public List<Expense> getExpensesSortedByDate() {
-        return store.getExpenses().stream()
-                .sorted(Comparator.comparing(Expense::getPurchaseDate))
-                .collect(Collectors.toList());
+        ready();
+        return SORT_DATE.time(store::expensesSortedByDate);
     }
 
     public List<Expense> getExpensesSortedByPriceDesc() {
-        return store.getExpenses().stream()
-                .sorted(Comparator.comparingInt(Expense::getPrice).reversed())
-                .collect(Collectors.toList());
+        ready();
+        return SORT_PRICE.time(store::expensesSortedByPriceDesc);
+    }
+
+    // 아래 조회는 정렬 색인 위의 읽기 전용 뷰를 돌려준다(비용은 돌려받아 읽는 행 수에 비례).
+
+    /** 가장 비싼 k개 */
+    public List<Expense> topByPrice(int k) {
+        if (k < 0) throw new ValidationException("개수는 0 이상이어야 합니다.");
+        ready();
+        return TOP.time(() -> store.topExpensesByPrice(k));
+    }
+
+    /** from~to(양 끝 포함) 구매일, 날짜순 */
+    public List<Expense> between(LocalDate from, LocalDate to) {
+        if (from == null || to == null) throw new ValidationException("기간의 시작/끝 날짜가 필요합니다.");
+        if (to.isBefore(from)) throw new ValidationException("끝 날짜가 시작 날짜보다 앞입니다.");
+        ready();
+        return RANGE.time(() -> store.expensesBetween(from, to.plusDays(1)));
+    }
+
+    /** min~max(양 끝 포함) 금액, 비싼 순 */
+    public List<Expense> pricedBetween(int min, int max) {
+        if (min > max) throw new ValidationException("최소 금액이 최대 금액보다 큽니다.");
+        ready();
+        return RANGE.time(() -> store.expensesPricedBetween(min, max));
+    }
+
+    /** 목록 화면용: 제목/분류 검색어(비우면 전체)와 정렬을 적용한 페이지 커서 */
+    public PagedView<Expense> browse(String keyword, ExpenseSort sort) {
+        ready();
+        String kw = (keyword == null) ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        ExpenseSort s = sort == null ? ExpenseSort.REGISTERED : sort;
+        return BROWSE.time(() -> store.expenseView(kw, s));
+    }
+
+    /** 한 달 목록 화면용(그 달 조각만 읽는다): 제목/분류 검색어(비우면 전체)와 정렬을 적용한 페이지 커서 */
+    public PagedView<Expense> browseMonth(YearMonth ym, String keyword, ExpenseSort sort) {
+        if (ym == null) throw new ValidationException("월이 필요합니다.");
+        ready();
+        String kw = (keyword == null) ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        ExpenseSort s = sort == null ? ExpenseSort.REGISTERED : sort;
+        return BROWSE.time(() -> {
+            long v = store.version();
+            List<Expense> rows = new ArrayList<>();
+            for (Expense e : store.expensesBetween(ym.atDay(1), ym.plusMonths(1).atDay(1))) { // 날짜순
+                if (kw.isEmpty() || contains(e.getTitle(), kw) || contains(e.getCategory(), kw)) rows.add(e);
+            }
+            switch (s) {
+                case DATE -> { }
+                case PRICE_DESC -> rows.sort(Comparator.comparingInt(Expense::getPrice).reversed());
+                case REGISTERED -> rows.sort(Comparator.comparingLong(Expense::getId));
+            }
+            return PagedView.of(rows, v);
+        });
+    }
+
+    private static boolean contains(String field, String kw) {
+        return field != null && field.toLowerCase(Locale.ROOT).contains(kw);
     }
 
     public List<Expense> searchByTitle(String keyword) {
+        ready();
         String kw = (keyword == null) ? "" : keyword.trim().toLowerCase(Locale.ROOT);
-        return store.getExpenses().stream()
-                .filter(e -> e.getTitle().toLowerCase(Locale.ROOT).contains(kw))
-                .collect(Collectors.toList());
+        return SEARCH.time(() -> store.searchExpensesByTitle(kw));
     }
 
     public List<Expense> searchByCategory(String keyword) {
+        ready();
         String kw = (keyword == null) ? "" : keyword.trim().toLowerCase(Locale.ROOT);
-        return store.getExpenses().stream()
-                .filter(e -> e.getCategory().toLowerCase(Locale.ROOT).contains(kw))
-                .collect(Collectors.toList());
+        return SEARCH.time(() -> store.searchExpensesByCategory(kw));
     }
 }
@@ -0,0 +1,176 @@
+package service;
+
+import model.Expense;
+
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 소비 내역의 구매월별 조각(shard) 장부.
+ * 달마다 건수/합계와 메모리에 올라왔는지를 들고 있고, 안 올라온 달은 건수/합계를 목록 파일(manifest) 값으로 대신한다.
+ * 메모리의 소비 목록은 구매월 순서로 달 덩어리가 이어져 있다(같은 달 안은 등록 순서).
+ * 그래서 전체 번호는 달별 건수만으로 (달, 달 안 위치)로 바꿀 수 있고, 그 달 하나만 읽으면 된다.
+ * 바뀐 달은 마지막 변경 버전과 함께 표시해 두었다가 저장이 끝나면 지운다.
+ * DataStore의 소비 잠금 아래서만 쓴다(unloaded만 잠금 없이 읽는다).
+ */
+final class ExpenseShards {
+
+    /** 한 달 조각의 상태 */
+    private static final class Month {
+        int count;
+        long total;
+        long maxId; // 그 달 항목 id 중 가장 큰 값 (새 id가 안 읽은 달과 겹치지 않게)
+        boolean loaded;
+
+        Month(int count, long total, long maxId, boolean loaded) {
+            this.count = count;
+            this.total = total;
+            this.maxId = maxId;
+            this.loaded = loaded;
+        }
+    }
+
+    private final TreeMap<YearMonth, Month> months = new TreeMap<>();
+    private final Map<YearMonth, Long> dirty = new HashMap<>(); // 달 → 마지막으로 바뀐 버전
+    private DataStore.ShardLoader loader;
+    private volatile int unloaded; // 아직 안 읽은 달 수
+    private int total;
+
+    static YearMonth monthOf(Expense e) { return YearMonth.from(e.getPurchaseDate()); }
+
+    /** 목록 파일의 달별 요약으로 바꾼다. 모든 달이 안 읽힌 상태가 된다. */
+    void attach(Map<YearMonth, DataStore.MonthSummary> manifest, DataStore.ShardLoader loader) {
+        months.clear();
+        dirty.clear();
+        total = 0;
+        manifest.forEach((ym, s) -> {
+            months.put(ym, new Month(s.count(), s.total(), s.maxId(), false));
+            total += s.count();
+        });
+        this.loader = loader;
+        unloaded = months.size();
+    }
+
+    boolean allLoaded() { return unloaded == 0; }
+
+    int total() { return total; }
+
+    int loadedMonths() { return months.size() - unloaded; }
+
+    /** 모든 달(안 읽은 달 포함)의 가장 큰 id */
+    long maxId() {
+        long max = 0;
+        for (Month m : months.values()) max = Math.max(max, m.maxId);
+        return max;
+    }
+
+    long totalOf(YearMonth ym) {
+        Month m = months.get(ym);
+        return m == null ? 0 : m.total;
+    }
+
+    /** need를 만족하는 안 읽힌 달 (오름차순) */
+    List<YearMonth> unloaded(Predicate<YearMonth> need) {
+        if (unloaded == 0) return List.of();
+        List<YearMonth> out = new ArrayList<>();
+        months.forEach((ym, m) -> { if (!m.loaded && need.test(ym)) out.add(ym); });
+        return out;
+    }
+
+    /** ym 조각을 읽어 온다. 파일 건수가 목록과 다르면(직접 고친 경우 등) 읽은 값으로 맞춘다. */
+    List<Expense> load(YearMonth ym) {
+        Month m = months.get(ym);
+        List<Expense> rows = loader.load(ym);
+        total += rows.size() - m.count;
+        m.count = rows.size();
+        m.total = 0;
+        for (Expense e : rows) {
+            m.total += e.getPrice();
+            m.maxId = Math.max(m.maxId, e.getId());
+        }
+        m.loaded = true;
+        unloaded--;
+        return rows;
+    }
+
+    /** 메모리 목록에서 ym 덩어리가 시작하는 위치 (앞선 읽힌 달들의 건수 합) */
+    int memoryStart(YearMonth ym) {
+        int pos = 0;
+        for (Month m : months.headMap(ym, false).values()) if (m.loaded) pos += m.count;
+        return pos;
+    }
+
+    /** 전체 번호 → 그 번호가 든 달. within[0]에 달 안 위치를 담는다. */
+    YearMonth locate(int idx, int[] within) {
+        for (Map.Entry<YearMonth, Month> en : months.entrySet()) {
+            int c = en.getValue().count;
+            if (idx < c) { within[0] = idx; return en.getKey(); }
+            idx -= c;
+        }
+        throw new IndexOutOfBoundsException(idx);
+    }
+
+    /** 이미 읽힌 달 중 가장 늦은 달 (없으면 null) */
+    YearMonth lastLoaded() {
+        for (Map.Entry<YearMonth, Month> en : months.descendingMap().entrySet())
+            if (en.getValue().loaded && en.getValue().count > 0) return en.getKey();
+        return null;
+    }
+
+    /** 읽힌 달(또는 새 달)의 현재 건수 */
+    int count(YearMonth ym) {
+        Month m = months.get(ym);
+        return m == null ? 0 : m.count;
+    }
+
+    SortedSet<YearMonth> months() { return months.navigableKeySet(); }
+
+    void added(Expense e, long version) {
+        YearMonth ym = monthOf(e);
+        Month m = months.computeIfAbsent(ym, k -> new Month(0, 0, 0, true));
+        m.count++;
+        m.total += e.getPrice();
+        m.maxId = Math.max(m.maxId, e.getId());
+        total++;
+        dirty.put(ym, version);
+    }
+
+    void removed(Expense e, long version) {
+        YearMonth ym = monthOf(e);
+        Month m = months.get(ym);
+        m.count--;
+        m.total -= e.getPrice();
+        total--;
+        dirty.put(ym, version);
+    }
+
+    /** 읽어 온 행에 id를 새로 붙였다(id가 없던 옛 파일 등): 다음 저장 때 다시 쓰이게 표시한다. */
+    void idsAssigned(YearMonth ym, long maxId, long version) {
+        Month m = months.get(ym);
+        m.maxId = Math.max(m.maxId, maxId);
+        dirty.put(ym, version);
+    }
+
+    /** 전부 지운다. 있던 달은 모두 "바뀜(비었음)"으로 남겨 저장 때 파일이 지워지게 한다. */
+    void clear(long version) {
+        for (YearMonth ym : months.keySet()) dirty.put(ym, version);
+        months.clear();
+        total = 0;
+        unloaded = 0;
+    }
+
+    /** 저장용: 전체 달 요약과 바뀐 달 목록(버전 포함) */
+    SortedMap<YearMonth, DataStore.MonthSummary> summaries() {
+        SortedMap<YearMonth, DataStore.MonthSummary> out = new TreeMap<>();
+        months.forEach((ym, m) -> { if (m.count > 0) out.put(ym, new DataStore.MonthSummary(m.count, m.total, m.maxId)); });
+        return out;
+    }
+
+    Map<YearMonth, Long> dirty() { return new HashMap<>(dirty); }
+
+    /** 저장이 끝난 달 표시를 지운다. 그 사이 다시 바뀐 달(버전이 다름)은 남긴다. */
+    void saved(Map<YearMonth, Long> stamps) {
+        stamps.forEach((ym, v) -> dirty.remove(ym, v));
+    }
+}
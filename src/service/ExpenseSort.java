@@ -0,0 +1,8 @@
+package service;
+
+/** 소비 목록 정렬 기준 */
+public enum ExpenseSort {
+    REGISTERED,  // 기본 순서 (구매월별, 같은 달은 등록 순서)
+    DATE,        // 구매일 오름차순
+    PRICE_DESC   // 금액 내림차순
+}
@@ -0,0 +1,246 @@
+package service;
+
+import model.Expense;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * 소비 정렬 색인: 구매일 오름차순, 금액 내림차순 (같으면 id 순 = 등록 순서).
+ * 목록 모드는 넣고 뺄 때마다 두 OrderedIndex를 O(log n)에 고쳐 두고, 조회는 고정판 위의 구간 뷰라
+ * 상위 K개/날짜 구간/금액 구간이 복사 없이 O(log n + 읽은 행)이다.
+ * 열 저장 모드는 넣을 때마다 행 번호가 밀리므로 행마다 색인하지 않고, 바뀐 뒤 처음 조회할 때
+ * 원시 정렬 한 번으로 순서를 만들어 다음 변경까지 다시 쓴다(구간은 그 위에서 이진 탐색).
+ * 대량 적재 중에는 invalidate()로 색인을 멈춰 두고, 다 읽힌 뒤 처음 조회할 때 한 번에 다시 쌓는다.
+ * 변경은 저장소 쓰기 잠금 아래서, pin()은 읽기 잠금 아래서 부른다.
+ */
+final class ExpenseSortIndex {
+
+    // 정렬/합치기에서 수백만 번 불리므로 조합 비교자 대신 직접 쓴다
+    private static final Comparator<Expense> BY_DATE = (a, b) -> {
+        int c = Long.compare(day(a.getPurchaseDate()), day(b.getPurchaseDate()));
+        return c != 0 ? c : Long.compare(a.getId(), b.getId());
+    };
+    private static final Comparator<Expense> BY_PRICE_DESC = (a, b) -> {
+        int c = Integer.compare(b.getPrice(), a.getPrice());
+        return c != 0 ? c : Long.compare(a.getId(), b.getId());
+    };
+    private static final ToLongFunction<Expense> DAY = e -> day(e.getPurchaseDate());
+    private static final ToLongFunction<Expense> PRICE = Expense::getPrice;
+
+    private final List<Expense> rows;                    // 저장소의 메모리 목록 (다시 쌓을 때 읽는다)
+    private final ExpenseColumns columns;                // 열 저장 모드일 때만
+    private final OrderedIndex<Expense> byDate, byPrice; // 목록 모드일 때만
+    private volatile boolean stale;                      // 목록 모드: 색인을 멈춘 상태 (다음 조회 때 다시 쌓는다)
+    private volatile ColumnSort columnSort;              // 열 저장 모드: 마지막 변경 이후의 정렬 (처음 쓸 때 만든다)
+
+    /** columns가 null이면 목록 모드 (rows는 그 모드의 메모리 목록) */
+    ExpenseSortIndex(List<Expense> rows, ExpenseColumns columns) {
+        this.rows = rows;
+        this.columns = columns;
+        this.byDate = columns == null ? new OrderedIndex<>(BY_DATE) : null;
+        this.byPrice = columns == null ? new OrderedIndex<>(BY_PRICE_DESC) : null;
+    }
+
+    void add(Expense e) {
+        if (skip()) return;
+        byDate.add(e);
+        byPrice.add(e);
+    }
+
+    /** 정렬 한 번으로 쌓아 기존 색인과 합친다(가져오기/달 읽기) */
+    void addAll(Collection<Expense> batch) {
+        if (skip()) return;
+        byDate.addAll(batch);
+        byPrice.addAll(batch);
+    }
+
+    void remove(Expense e) {
+        if (skip()) return;
+        byDate.remove(e);
+        byPrice.remove(e);
+    }
+
+    void clear() {
+        columnSort = null;
+        if (columns != null) return;
+        byDate.clear();
+        byPrice.clear();
+        stale = false;
+    }
+
+    /** 색인을 멈추고 비운다(대량 적재 시작). 다음 pin()이 그때 목록으로 다시 쌓는다. */
+    void invalidate() {
+        columnSort = null;
+        if (columns != null || stale) return;
+        byDate.clear();
+        byPrice.clear();
+        stale = true;
+    }
+
+    /** 열 저장 모드거나 멈춘 상태면 고치지 않는다(열 저장 모드는 정렬 결과만 버린다). */
+    private boolean skip() {
+        columnSort = null;
+        return columns != null || stale;
+    }
+
+    /** 지금 판을 고정한다(읽기 잠금 아래서, 멈춰 있었으면 다시 쌓은 뒤 O(1)). 이후 읽기는 잠금 없이 한다. */
+    Sorted pin() {
+        if (columns == null) {
+            if (stale) {
+                synchronized (this) { // 읽기 잠금은 여럿이 잡으므로 한 쪽만 쌓는다
+                    if (stale) {
+                        byDate.addAll(rows);
+                        byPrice.addAll(rows);
+                        stale = false;
+                    }
+                }
+            }
+            return new Sorted(new TreeOrder(byDate.snapshot(), DAY), new TreeOrder(byPrice.snapshot(), PRICE));
+        }
+        ColumnSort s = columnSort;
+        if (s == null) {
+            synchronized (this) { // 같은 판을 읽는 쪽끼리 정렬을 한 번만 하도록
+                s = columnSort;
+                if (s == null) columnSort = s = new ColumnSort(columns.snapshot());
+            }
+        }
+        return new Sorted(s.order(true), s.order(false));
+    }
+
+    private static long day(LocalDate d) { return d == null ? Long.MIN_VALUE : d.toEpochDay(); }
+
+    // ------------------- 고정한 정렬 결과 -------------------
+
+    /** 고정한 두 정렬 순서. 돌려주는 목록은 모두 읽기 전용 구간 뷰다(순회하는 만큼만 행을 읽는다). */
+    static final class Sorted {
+        private final Order date, price;
+
+        private Sorted(Order date, Order price) {
+            this.date = date;
+            this.price = price;
+        }
+
+        List<Expense> byDate() { return new Range(date, 0, date.size()); }
+
+        List<Expense> byPriceDesc() { return new Range(price, 0, price.size()); }
+
+        /** 비싼 순 k개 */
+        List<Expense> topByPrice(int k) { return new Range(price, 0, Math.min(Math.max(k, 0), price.size())); }
+
+        /** [from, toExclusive) 구매일, 날짜순 */
+        List<Expense> between(LocalDate from, LocalDate toExclusive) {
+            long lo = from.toEpochDay(), hi = toExclusive.toEpochDay();
+            return range(date, d -> d >= lo, d -> d >= hi);
+        }
+
+        /** min ≤ 금액 ≤ max, 비싼 순 */
+        List<Expense> pricedBetween(int min, int max) {
+            return range(price, p -> p <= max, p -> p < min);
+        }
+
+        private static List<Expense> range(Order o, LongPredicate start, LongPredicate end) {
+            int from = o.firstIndex(start);
+            return new Range(o, from, Math.max(from, o.firstIndex(end)));
+        }
+    }
+
+    /** 고정한 한 정렬 순서 */
+    private interface Order {
+        int size();
+        Expense get(int i);
+        Iterator<Expense> iterator(int from);
+        /** 정렬 키가 atOrAfter를 처음 만족하는 위치 (정렬 순서상 거짓…참 형태), 없으면 size() */
+        int firstIndex(LongPredicate atOrAfter);
+    }
+
+    /** 목록 모드: 색인 고정판 */
+    private record TreeOrder(OrderedIndex<Expense> index, ToLongFunction<Expense> key) implements Order {
+        @Override public int size() { return index.size(); }
+        @Override public Expense get(int i) { return index.get(i); }
+        @Override public Iterator<Expense> iterator(int from) { return index.iterator(from); }
+        @Override public int firstIndex(LongPredicate atOrAfter) {
+            return index.firstIndex(e -> atOrAfter.test(key.applyAsLong(e)));
+        }
+    }
+
+    /** 열 저장 모드: 고정한 열 + 정렬한 행 번호 (행 객체는 읽을 때 만든다) */
+    private static final class ColumnSort {
+        private final ExpenseColumns pinned;
+        private int[] dateRows, priceRows;
+
+        ColumnSort(ExpenseColumns pinned) { this.pinned = pinned; }
+
+        Order order(boolean byDate) {
+            return new Order() {
+                private int[] rows() { return byDate ? dateRows() : priceRows(); }
+                @Override public int size() { return pinned.size(); }
+                @Override public Expense get(int i) { return pinned.get(rows()[i]); }
+                @Override public Iterator<Expense> iterator(int from) {
+                    int[] rows = rows();
+                    return new Iterator<>() {
+                        int i = from;
+                        @Override public boolean hasNext() { return i < rows.length; }
+                        @Override public Expense next() {
+                            if (i >= rows.length) throw new NoSuchElementException();
+                            return pinned.get(rows[i++]);
+                        }
+                    };
+                }
+                @Override public int firstIndex(LongPredicate atOrAfter) {
+                    int[] rows = rows();
+                    int lo = 0, hi = rows.length;
+                    while (lo < hi) {
+                        int mid = (lo + hi) >>> 1;
+                        long k = byDate ? pinned.day(rows[mid]) : pinned.price(rows[mid]);
+                        if (atOrAfter.test(k)) hi = mid; else lo = mid + 1;
+                    }
+                    return lo;
+                }
+            };
+        }
+
+        synchronized int[] dateRows() { return dateRows != null ? dateRows : (dateRows = pinned.rowsByDate()); }
+
+        synchronized int[] priceRows() { return priceRows != null ? priceRows : (priceRows = pinned.rowsByPriceDesc()); }
+    }
+
+    /** 정렬 순서의 [from, to) 구간 뷰. subList는 O(1), 순회는 한 번 내려간 뒤 차례로 읽는다. */
+    private static final class Range extends AbstractList<Expense> {
+        private final Order order;
+        private final int from, to;
+
+        Range(Order order, int from, int to) {
+            this.order = order;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override public int size() { return to - from; }
+
+        @Override public Expense get(int i) {
+            Objects.checkIndex(i, to - from);
+            return order.get(from + i);
+        }
+
+        @Override public List<Expense> subList(int fromIndex, int toIndex) {
+            Objects.checkFromToIndex(fromIndex, toIndex, to - from);
+            return new Range(order, from + fromIndex, from + toIndex);
+        }
+
+        @Override public Iterator<Expense> iterator() {
+            Iterator<Expense> it = order.iterator(from);
+            return new Iterator<>() {
+                int left = to - from;
+                @Override public boolean hasNext() { return left > 0; }
+                @Override public Expense next() {
+                    if (left <= 0) throw new NoSuchElementException();
+                    left--;
+                    return it.next();
+                }
+            };
+        }
+    }
+}
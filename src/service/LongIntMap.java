@@ -0,0 +1,92 @@
+package service;
+
+import java.util.Arrays;
+
+/**
+ * long 키 → int 값 해시 맵 (열린 주소법, 선형 탐사). 키/값을 원시 배열에 두어 박싱이 없다.
+ * 키는 1 이상이어야 한다(0은 빈 칸, -1은 지운 칸 표시). 지운 칸은 탐사가 끊기지 않게 남겨 두었다가
+ * 빈 칸이 모자라면 살아 있는 것만으로 다시 만든다.
+ */
+final class LongIntMap {
+
+    private static final long EMPTY = 0, DELETED = -1;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private int[] values = new int[MIN_CAPACITY];
+    private int size, used; // used = 살아 있는 칸 + 지운 칸
+
+    int size() { return size; }
+
+    boolean containsKey(long key) { return find(key) >= 0; }
+
+    /** 없으면 missing */
+    int get(long key, int missing) {
+        int at = find(key);
+        return at < 0 ? missing : values[at];
+    }
+
+    void put(long key, int value) {
+        if (key <= 0) throw new IllegalArgumentException("키는 1 이상이어야 합니다: " + key);
+        int at = find(key);
+        if (at >= 0) { values[at] = value; return; }
+        if ((used + 1) * 4L > keys.length * 3L) rehash(size + 1);
+        int mask = keys.length - 1, i = mix(key) & mask;
+        while (keys[i] > 0) i = (i + 1) & mask;
+        if (keys[i] == EMPTY) used++;
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /** 지웠으면 true */
+    boolean remove(long key) {
+        int at = find(key);
+        if (at < 0) return false;
+        keys[at] = DELETED;
+        size--;
+        return true;
+    }
+
+    void clear() {
+        if (keys.length > MIN_CAPACITY) {
+            keys = new long[MIN_CAPACITY];
+            values = new int[MIN_CAPACITY];
+        } else {
+            Arrays.fill(keys, EMPTY);
+        }
+        size = used = 0;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1, i = mix(key) & mask;
+        for (long k; (k = keys[i]) != EMPTY; i = (i + 1) & mask)
+            if (k == key) return i;
+        return -1;
+    }
+
+    /** 살아 있는 키가 need개여도 절반 이하로 차는 크기로 다시 만든다(지운 칸은 버린다). */
+    private void rehash(int need) {
+        int cap = MIN_CAPACITY;
+        while (cap < need * 2) cap <<= 1;
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[cap];
+        values = new int[cap];
+        int mask = cap - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] <= 0) continue;
+            int i = mix(oldKeys[j]) & mask;
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+        used = size;
+    }
+
+    /** 연속된 id가 한 곳에 몰리지 않게 비트를 섞는다 */
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
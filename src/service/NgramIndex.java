@@ -0,0 +1,194 @@
+package service;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 문자 단위 uni/bi-gram 역색인 (한글 포함, 소문자 기준).
+ * 부분 문자열 질의는 질의어 bigram들의 posting list를 교집합한 뒤 후보만 contains로 확인한다.
+ * 삭제는 툼스톤으로 표시하고, 툼스톤이 살아 있는 문서 수를 넘으면 통째로 다시 만든다.
+ * 값이 바뀐 문서는 docId를 유지한 채 새 gram만 끼워 넣는다(옛 gram은 확인 단계에서 걸러짐).
+ */
+class NgramIndex<T> {
+
+    private static final int MIN_REBUILD = 1024;
+
+    private final List<Function<T, String>> fields;
+    private final List<Map<Integer, Postings>> unigrams = new ArrayList<>();
+    private final List<Map<Integer, Postings>> bigrams = new ArrayList<>();
+    private final List<T> docs = new ArrayList<>();                 // docId → 문서 (삭제되면 null)
+    private final Map<T, Integer> docIds = new IdentityHashMap<>();
+    private int dead;
+
+    /** fields: 색인할 문자열 필드들 (search의 필드 번호는 이 순서) */
+    NgramIndex(List<Function<T, String>> fields) {
+        this.fields = List.copyOf(fields);
+        for (int f = 0; f < this.fields.size(); f++) {
+            unigrams.add(new HashMap<>());
+            bigrams.add(new HashMap<>());
+        }
+    }
+
+    int fieldCount() { return fields.size(); }
+
+    void add(T doc) {
+        int id = docs.size();
+        docs.add(doc);
+        docIds.put(doc, id);
+        for (int f = 0; f < fields.size(); f++) indexField(f, id, fields.get(f).apply(doc), false);
+    }
+
+    void remove(T doc) {
+        Integer id = docIds.remove(doc);
+        if (id == null) return;
+        docs.set(id, null);
+        dead++;
+        compactIfNeeded();
+    }
+
+    /** 색인 대상 필드 값이 바뀐 문서를 다시 색인한다. */
+    void update(T doc) {
+        Integer id = docIds.get(doc);
+        if (id == null) { add(doc); return; }
+        for (int f = 0; f < fields.size(); f++) indexField(f, id, fields.get(f).apply(doc), true);
+        dead++; // 옛 값의 gram이 남아 있으므로 재구성 시점 계산에 포함
+        compactIfNeeded();
+    }
+
+    void clear() {
+        docs.clear();
+        docIds.clear();
+        for (int f = 0; f < fields.size(); f++) { unigrams.get(f).clear(); bigrams.get(f).clear(); }
+        dead = 0;
+    }
+
+    /** 툼스톤이 많이 쌓였으면 살아 있는 문서만으로 다시 만든다. */
+    private void compactIfNeeded() {
+        if (dead < MIN_REBUILD || dead <= docIds.size()) return;
+        List<T> live = new ArrayList<>(docIds.size());
+        for (T d : docs) if (d != null) live.add(d);
+        clear();
+        for (T d : live) add(d);
+    }
+
+    /** 필드 f에 kw(소문자)를 부분 문자열로 포함하는 문서들 (등록 순서) */
+    List<T> search(int f, String kw) {
+        List<T> out = new ArrayList<>();
+        if (kw.isEmpty()) {
+            for (T d : docs) if (d != null) out.add(d);
+            return out;
+        }
+        int[] cand = candidates(f, kw);
+        for (int id : cand) {
+            T d = docs.get(id);
+            if (d != null && lower(fields.get(f).apply(d)).contains(kw)) out.add(d);
+        }
+        return out;
+    }
+
+    /** 어느 한 필드라도 kw를 포함하는 문서들 (등록 순서) */
+    List<T> searchAny(String kw) {
+        if (kw.isEmpty() || fields.size() == 1) return search(0, kw);
+        int[] merged = new int[0];
+        for (int f = 0; f < fields.size(); f++) merged = union(merged, candidates(f, kw));
+        List<T> out = new ArrayList<>();
+        for (int id : merged) {
+            T d = docs.get(id);
+            if (d == null) continue;
+            for (Function<T, String> fn : fields) {
+                if (lower(fn.apply(d)).contains(kw)) { out.add(d); break; }
+            }
+        }
+        return out;
+    }
+
+    private int[] candidates(int f, String kw) {
+        if (kw.length() == 1) {
+            Postings p = unigrams.get(f).get((int) kw.charAt(0));
+            return p == null ? new int[0] : p.toArray();
+        }
+        Map<Integer, Postings> grams = bigrams.get(f);
+        List<Postings> lists = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i + 1 < kw.length(); i++) {
+            int g = bigram(kw.charAt(i), kw.charAt(i + 1));
+            if (!seen.add(g)) continue;
+            Postings p = grams.get(g);
+            if (p == null) return new int[0];
+            lists.add(p);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+        int[] acc = lists.get(0).toArray();
+        for (int i = 1; i < lists.size() && acc.length > 0; i++) acc = intersect(acc, lists.get(i));
+        return acc;
+    }
+
+    private void indexField(int f, int id, String text, boolean insert) {
+        if (text == null || text.isEmpty()) return;
+        String s = lower(text);
+        Map<Integer, Postings> uni = unigrams.get(f), bi = bigrams.get(f);
+        for (int i = 0; i < s.length(); i++) {
+            put(uni.computeIfAbsent((int) s.charAt(i), k -> new Postings()), id, insert);
+            if (i + 1 < s.length())
+                put(bi.computeIfAbsent(bigram(s.charAt(i), s.charAt(i + 1)), k -> new Postings()), id, insert);
+        }
+    }
+
+    private static void put(Postings p, int id, boolean insert) {
+        if (insert) p.insert(id);
+        else p.addOnce(id);
+    }
+
+    private static int bigram(char a, char b) { return (a << 16) | b; }
+
+    private static String lower(String s) { return s == null ? "" : s.toLowerCase(Locale.ROOT); }
+
+    private static int[] intersect(int[] a, Postings b) {
+        int[] out = new int[Math.min(a.length, b.size)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.size) {
+            if (a[i] < b.ids[j]) i++;
+            else if (a[i] > b.ids[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static int[] union(int[] a, int[] b) {
+        int[] out = new int[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            int v;
+            if (j >= b.length || (i < a.length && a[i] < b[j])) v = a[i++];
+            else if (i >= a.length || b[j] < a[i]) v = b[j++];
+            else { v = a[i]; i++; j++; }
+            out[n++] = v;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** 오름차순 docId 목록. docId는 단조 증가로만 부여되므로 뒤에 붙이기만 하면 정렬이 유지된다. */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void addOnce(int id) {
+            if (size > 0 && ids[size - 1] == id) return; // 같은 문서 안의 중복 gram
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        /** 기존 문서를 재색인할 때: 정렬 위치에 끼워 넣는다. */
+        void insert(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) return;
+            pos = -pos - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        int[] toArray() { return Arrays.copyOf(ids, size); }
+    }
+}
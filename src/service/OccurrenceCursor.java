@@ -0,0 +1,96 @@
+package service;
+
+import model.Schedule;
+import model.ScheduleOccurrence;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * 날짜(같으면 이름)순 일정 회차 커서.
+ * 한 번짜리 일정은 날짜 색인을 구간 시작부터 따라가고, 반복 일정은 규칙마다 구간 안 회차를 하나씩 만들어
+ * 작은 힙(반복 일정 수만큼)으로 합친다. 꺼내는 만큼만 계산하므로 몇 년짜리 반복도 미리 펼치지 않는다.
+ * 고정한(snapshot) 색인을 받으므로 잠금 없이 돈다.
+ */
+final class OccurrenceCursor implements Iterator<ScheduleOccurrence> {
+
+    private static final Comparator<Head> ORDER =
+            Comparator.comparing((Head h) -> h.date).thenComparing(h -> h.schedule.getName());
+
+    /** 반복 일정 하나의 다음 회차 */
+    private static final class Head {
+        final Schedule schedule;
+        final Iterator<LocalDate> dates;
+        LocalDate date;
+
+        Head(Schedule schedule, Iterator<LocalDate> dates) {
+            this.schedule = schedule;
+            this.dates = dates;
+            this.date = dates.next();
+        }
+    }
+
+    private final LocalDate toExclusive; // null이면 끝 없음
+    private final LocalDate today;
+    private final Iterator<Schedule> once;
+    private Schedule nextOnce;
+    private final PriorityQueue<Head> repeats = new PriorityQueue<>(ORDER);
+
+    /**
+     * byDate: 모든 일정의 날짜 색인, recurring: 반복 일정만의 시작일 색인 (둘 다 고정판).
+     * toExclusive가 null이면 끝 없이 이어진다(limit만큼 꺼내는 용도).
+     */
+    OccurrenceCursor(OrderedIndex<Schedule> byDate, OrderedIndex<Schedule> recurring,
+                     LocalDate from, LocalDate toExclusive, LocalDate today) {
+        this.toExclusive = toExclusive;
+        this.today = today;
+        this.once = byDate.iterator(byDate.firstIndex(s -> !s.getDate().isBefore(from)));
+        this.nextOnce = advanceOnce();
+        for (Schedule s : recurring) { // 시작일순이라 구간 뒤에서 시작하는 것부터는 볼 필요가 없다
+            if (toExclusive != null && !s.getDate().isBefore(toExclusive)) break;
+            Iterator<LocalDate> dates = s.getRecurrence().dates(s.getDate(), from, toExclusive);
+            if (dates.hasNext()) repeats.add(new Head(s, dates));
+        }
+    }
+
+    @Override
+    public boolean hasNext() { return nextOnce != null || !repeats.isEmpty(); }
+
+    @Override
+    public ScheduleOccurrence next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        Head h = repeats.peek();
+        if (nextOnce != null && (h == null || before(nextOnce, h))) {
+            Schedule s = nextOnce;
+            nextOnce = advanceOnce();
+            return occurrence(s, s.getDate());
+        }
+        repeats.poll();
+        ScheduleOccurrence out = occurrence(h.schedule, h.date);
+        if (h.dates.hasNext()) {
+            h.date = h.dates.next();
+            repeats.add(h);
+        }
+        return out;
+    }
+
+    /** 다음 한 번짜리 일정 (반복 일정은 힙 쪽에서 나오므로 건너뛴다) */
+    private Schedule advanceOnce() {
+        while (once.hasNext()) {
+            Schedule s = once.next();
+            if (toExclusive != null && !s.getDate().isBefore(toExclusive)) return null;
+            if (!s.isRecurring()) return s;
+        }
+        return null;
+    }
+
+    private static boolean before(Schedule s, Head h) {
+        int c = s.getDate().compareTo(h.date);
+        return c < 0 || (c == 0 && s.getName().compareTo(h.schedule.getName()) <= 0);
+    }
+
+    private ScheduleOccurrence occurrence(Schedule s, LocalDate date) {
+        return new ScheduleOccurrence(s, date, ChronoUnit.DAYS.between(today, date));
+    }
+}
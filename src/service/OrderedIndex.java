@@ -0,0 +1,218 @@
+package service;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * 크기 정보를 가진 treap 기반 순서 통계 트리.
+ * 삽입/삭제/k번째 접근/경계 탐색이 모두 O(log n)이고,
+ * 구간 순회는 O(log n + k)로 복사 없이 진행한다.
+ * 삽입/삭제는 지나간 경로의 노드만 새로 만들고(경로 복사) 나머지는 공유하므로,
+ * snapshot()으로 고정한 판은 이후 변경과 상관없이 잠금 없이 읽을 수 있다.
+ */
+class OrderedIndex<T> implements Iterable<T> {
+
+    private final Comparator<? super T> order;
+    private Node<T> root;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    OrderedIndex(Comparator<? super T> order) { this.order = order; }
+
+    private OrderedIndex(Comparator<? super T> order, Node<T> root) {
+        this.order = order;
+        this.root = root;
+    }
+
+    /** 지금 판을 O(1)에 고정한 읽기 전용 사본 (고치면 안 된다) */
+    OrderedIndex<T> snapshot() { return new OrderedIndex<>(order, root); }
+
+    int size() { return size(root); }
+
+    void clear() { root = null; }
+
+    void add(T value) {
+        Node<T> n = new Node<>(value, nextPriority());
+        Node<T>[] lr = split(root, value);
+        root = merge(merge(lr[0], n), lr[1]);
+    }
+
+    /**
+     * 여러 개를 한꺼번에 넣는다. 정렬한 뒤 스택으로 새 treap을 한 번에 쌓고(O(m log m) 정렬 + O(m)),
+     * 비어 있지 않으면 기존 트리와 합친다(O(m log(n/m + 1)), 하나씩 넣는 것보다 새로 만드는 노드가 적다).
+     * 쌓을 때는 아직 아무도 못 본 새 노드만 고친다. 기존 원소와 비교 결과가 같은 원소는 넣지 않는다고 가정한다.
+     */
+    void addAll(Collection<? extends T> values) {
+        if (values.isEmpty()) return;
+        List<T> sorted = new ArrayList<>(values);
+        sorted.sort(order);
+        // 오른쪽 가장자리를 스택으로 들고, 우선순위가 더 큰 노드가 오면 밀려난 것들을 왼쪽 자식으로 단다
+        Deque<Node<T>> spine = new ArrayDeque<>();
+        for (T v : sorted) {
+            Node<T> n = new Node<>(v, nextPriority());
+            Node<T> last = null;
+            while (!spine.isEmpty() && spine.peek().priority < n.priority) {
+                last = spine.pop();
+                last.update();
+            }
+            n.left = last;
+            if (!spine.isEmpty()) spine.peek().right = n;
+            spine.push(n);
+        }
+        Node<T> top = null;
+        while (!spine.isEmpty()) {
+            top = spine.pop();
+            top.update();
+        }
+        root = union(root, top);
+    }
+
+    /** 비교 결과가 같은 원소 하나를 지운다. 지웠으면 true. */
+    boolean remove(T value) {
+        int before = size(root);
+        root = remove(root, value);
+        return size(root) != before;
+    }
+
+    /** 정렬 순서 기준 idx번째 원소 */
+    T get(int idx) {
+        Objects.checkIndex(idx, size(root));
+        Node<T> n = root;
+        while (true) {
+            int ls = size(n.left);
+            if (idx < ls) n = n.left;
+            else if (idx == ls) return n.value;
+            else { idx -= ls + 1; n = n.right; }
+        }
+    }
+
+    /**
+     * 처음으로 atOrAfter를 만족하는 위치. atOrAfter는 정렬 순서상 false…false true…true 형태여야 한다.
+     * 없으면 size()를 돌려준다.
+     */
+    int firstIndex(Predicate<? super T> atOrAfter) {
+        int idx = 0, found = size(root);
+        Node<T> n = root;
+        while (n != null) {
+            if (atOrAfter.test(n.value)) {
+                found = idx + size(n.left);
+                n = n.left;
+            } else {
+                idx += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Iterator<T> iterator() { return iterator(0); }
+
+    /** fromIdx번째부터 정렬 순서대로 순회한다. */
+    Iterator<T> iterator(int fromIdx) {
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> n = root;
+        int idx = fromIdx;
+        while (n != null) { // fromIdx 위치까지 내려가며 이후에 방문할 조상만 쌓는다
+            int ls = size(n.left);
+            if (idx < ls) { stack.push(n); n = n.left; }
+            else if (idx == ls) { stack.push(n); break; }
+            else { idx -= ls + 1; n = n.right; }
+        }
+        return new Iterator<>() {
+            @Override public boolean hasNext() { return !stack.isEmpty(); }
+
+            @Override public T next() {
+                if (stack.isEmpty()) throw new NoSuchElementException();
+                Node<T> cur = stack.pop();
+                for (Node<T> c = cur.right; c != null; c = c.left) stack.push(c);
+                return cur.value;
+            }
+        };
+    }
+
+    /** 정렬 순서 기준 [fromIdx, toIdx) 구간을 목록으로 */
+    List<T> slice(int fromIdx, int toIdx) {
+        int from = Math.max(fromIdx, 0), to = Math.min(toIdx, size(root));
+        List<T> out = new ArrayList<>(Math.max(to - from, 0));
+        Iterator<T> it = iterator(from);
+        for (int i = from; i < to && it.hasNext(); i++) out.add(it.next());
+        return out;
+    }
+
+    // ------------------- treap 내부 (경로 복사) -------------------
+    private Node<T> remove(Node<T> n, T value) {
+        if (n == null) return null;
+        int c = order.compare(value, n.value);
+        if (c == 0) return merge(n.left, n.right);
+        if (c < 0) {
+            Node<T> l = remove(n.left, value);
+            return l == n.left ? n : n.with(l, n.right);
+        }
+        Node<T> r = remove(n.right, value);
+        return r == n.right ? n : n.with(n.left, r);
+    }
+
+    /** [< value], [>= value]로 나눈다. 원래 노드는 건드리지 않는다. */
+    private Node<T>[] split(Node<T> n, T value) {
+        if (n == null) return pair(null, null);
+        if (order.compare(n.value, value) < 0) {
+            Node<T>[] lr = split(n.right, value);
+            lr[0] = n.with(n.left, lr[0]);
+            return lr;
+        }
+        Node<T>[] lr = split(n.left, value);
+        lr[1] = n.with(lr[1], n.right);
+        return lr;
+    }
+
+    /** 두 칸짜리 노드 배열 (제네릭 배열은 바로 만들 수 없어 와일드카드 배열을 형변환한다) */
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] pair(Node<T> left, Node<T> right) {
+        return (Node<T>[]) new Node<?>[]{left, right};
+    }
+
+    /** 두 treap을 합친다(값 범위가 겹쳐도 된다). 우선순위가 큰 쪽 뿌리로 다른 쪽을 나눠 양쪽에 다시 합친다. */
+    private Node<T> union(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority < b.priority) { Node<T> t = a; a = b; b = t; }
+        Node<T>[] lr = split(b, a.value);
+        return a.with(union(a.left, lr[0]), union(a.right, lr[1]));
+    }
+
+    private Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) return a.with(a.left, merge(a.right, b));
+        return b.with(merge(a, b.left), b.right);
+    }
+
+    private int nextPriority() { // xorshift: 전역 Random 경합 없이 노드 우선순위를 뽑는다
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return (int) seed;
+    }
+
+    private static int size(Node<?> n) { return n == null ? 0 : n.size; }
+
+    /** 트리에 들어간 뒤에는 고치지 않는다(고칠 때는 with로 새로 만든다). */
+    private static final class Node<T> {
+        final T value;
+        final int priority;
+        Node<T> left, right;
+        int size = 1;
+
+        Node(T value, int priority) { this.value = value; this.priority = priority; }
+
+        Node<T> with(Node<T> left, Node<T> right) {
+            Node<T> n = new Node<>(value, priority);
+            n.left = left;
+            n.right = right;
+            n.update();
+            return n;
+        }
+
+        void update() { size = 1 + size(left) + size(right); }
+    }
+}
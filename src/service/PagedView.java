@@ -0,0 +1,42 @@
+package service;
+
+import java.util.List;
+
+/**
+ * 정렬/필터가 끝난 결과를 페이지 단위로 꺼내는 커서.
+ * 만들 때는 행 순서(또는 참조 목록)만 정해 두고, 행 객체는 page()로 요청한 구간만 만든다.
+ * 만든 뒤 저장소가 바뀌면(version() ≠ DataStore.version()) 일부 행이 어긋날 수 있으니 새로 만든다.
+ */
+public final class PagedView<T> {
+
+    @FunctionalInterface
+    interface PageLoader<T> { List<T> load(int from, int to); }
+
+    private final int size;
+    private final long version;
+    private final PageLoader<T> loader;
+
+    PagedView(int size, long version, PageLoader<T> loader) {
+        this.size = size;
+        this.version = version;
+        this.loader = loader;
+    }
+
+    /** 이미 만든 목록을 그대로 페이지로 나눠 준다. */
+    static <T> PagedView<T> of(List<T> rows, long version) {
+        return new PagedView<>(rows.size(), version, (from, to) -> List.copyOf(rows.subList(from, to)));
+    }
+
+    public int size() { return size; }
+
+    /** 만들 때의 저장소 버전 */
+    public long version() { return version; }
+
+    /** offset부터 최대 limit개 */
+    public List<T> page(int offset, int limit) {
+        int from = Math.min(Math.max(offset, 0), size);
+        int to = (int) Math.min((long) from + Math.max(limit, 0), size);
+        if (from == to) return List.of();
+        return loader.load(from, to);
+    }
+}
@@ -0,0 +1,246 @@
+package service;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 고쳐도 원래 판은 그대로 남는(persistent) 목록. 크기 정보를 가진 treap을 위치로 찾아 간다.
+ * 고칠 때는 지나간 경로의 노드만 새로 만들고 나머지는 이전 판과 같이 쓴다(구조 공유).
+ * 넣기/빼기/바꾸기/k번째 접근/자르기가 모두 O(log n)이고, 끼워 넣을 목록은 O(k)에 쌓아 한 번에 붙인다.
+ * 옛 판을 들고 있는 쪽은 잠금 없이 그 시점 그대로 읽고, 아무도 안 들고 있는 판은 GC가 가져간다.
+ * null 원소(지운 자리 표시)를 허용하며, null이 아닌 원소만 센 크기/순서 접근도 O(log n)이다.
+ */
+final class PersistentList<T> extends AbstractList<T> {
+
+    private static final PersistentList<?> EMPTY = new PersistentList<>(null);
+
+    private final Node<T> root;
+
+    private PersistentList(Node<T> root) { this.root = root; }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentList<T> empty() { return (PersistentList<T>) EMPTY; }
+
+    static <T> PersistentList<T> of(Collection<? extends T> values) { return wrap(build(values)); }
+
+    private static <T> PersistentList<T> wrap(Node<T> root) { return root == null ? empty() : new PersistentList<>(root); }
+
+    @Override
+    public int size() { return size(root); }
+
+    @Override
+    public T get(int idx) {
+        Objects.checkIndex(idx, size(root));
+        Node<T> n = root;
+        while (true) {
+            int ls = size(n.left);
+            if (idx < ls) n = n.left;
+            else if (idx == ls) return n.value;
+            else { idx -= ls + 1; n = n.right; }
+        }
+    }
+
+    /** null이 아닌 원소 수 */
+    int presentSize() { return present(root); }
+
+    /** null을 건너뛰고 센 k번째 원소 */
+    T getPresent(int k) {
+        Objects.checkIndex(k, present(root));
+        Node<T> n = root;
+        while (true) {
+            int lp = present(n.left);
+            if (k < lp) { n = n.left; continue; }
+            k -= lp;
+            if (n.value != null) {
+                if (k == 0) return n.value;
+                k--;
+            }
+            n = n.right;
+        }
+    }
+
+    /** null을 건너뛴 읽기 전용 목록 (이 판을 그대로 쓰므로 O(1)) */
+    List<T> present() {
+        if (presentSize() == size()) return this;
+        return new AbstractList<T>() {
+            @Override public int size() { return presentSize(); }
+            @Override public T get(int k) { return getPresent(k); }
+            @Override public Iterator<T> iterator() {
+                Iterator<T> all = PersistentList.this.iterator();
+                return new Iterator<T>() {
+                    T next = advance();
+                    T advance() {
+                        while (all.hasNext()) { T v = all.next(); if (v != null) return v; }
+                        return null;
+                    }
+                    @Override public boolean hasNext() { return next != null; }
+                    @Override public T next() {
+                        if (next == null) throw new NoSuchElementException();
+                        T v = next;
+                        next = advance();
+                        return v;
+                    }
+                };
+            }
+        };
+    }
+
+    // ------------------- 새 판 만들기 -------------------
+
+    /** idx 자리를 value로 바꾼 판 */
+    PersistentList<T> with(int idx, T value) {
+        Objects.checkIndex(idx, size(root));
+        return wrap(set(root, idx, value));
+    }
+
+    /** 끝에 붙인 판 */
+    PersistentList<T> plus(T value) { return plus(size(root), value); }
+
+    /** idx 자리에 끼워 넣은 판 */
+    PersistentList<T> plus(int idx, T value) {
+        Objects.checkIndex(idx, size(root) + 1);
+        Node<T>[] lr = split(root, idx);
+        return wrap(merge(merge(lr[0], new Node<>(value, nextPriority(), null, null)), lr[1]));
+    }
+
+    /** idx 자리에 values를 차례로 끼워 넣은 판 */
+    PersistentList<T> plusAll(int idx, Collection<? extends T> values) {
+        Objects.checkIndex(idx, size(root) + 1);
+        if (values.isEmpty()) return this;
+        Node<T>[] lr = split(root, idx);
+        return wrap(merge(merge(lr[0], build(values)), lr[1]));
+    }
+
+    /** idx 자리를 뺀 판 */
+    PersistentList<T> minus(int idx) {
+        Objects.checkIndex(idx, size(root));
+        Node<T>[] a = split(root, idx);
+        Node<T>[] b = split(a[1], 1);
+        return wrap(merge(a[0], b[1]));
+    }
+
+    /** [from, to) 구간 판 (복사 없이 O(log n)) */
+    @Override
+    public PersistentList<T> subList(int from, int to) {
+        Objects.checkFromToIndex(from, to, size(root));
+        Node<T>[] a = split(root, to);
+        return wrap(split(a[0], from)[1]);
+    }
+
+    @Override
+    public Iterator<T> iterator() { return iterator(0); }
+
+    /** fromIdx번째부터 차례로 순회한다. */
+    Iterator<T> iterator(int fromIdx) {
+        Deque<Node<T>> stack = new ArrayDeque<>();
+        Node<T> n = root;
+        int idx = fromIdx;
+        while (n != null) { // fromIdx 위치까지 내려가며 이후에 방문할 조상만 쌓는다
+            int ls = size(n.left);
+            if (idx < ls) { stack.push(n); n = n.left; }
+            else if (idx == ls) { stack.push(n); break; }
+            else { idx -= ls + 1; n = n.right; }
+        }
+        return new Iterator<T>() {
+            @Override public boolean hasNext() { return !stack.isEmpty(); }
+
+            @Override public T next() {
+                if (stack.isEmpty()) throw new NoSuchElementException();
+                Node<T> cur = stack.pop();
+                for (Node<T> c = cur.right; c != null; c = c.left) stack.push(c);
+                return cur.value;
+            }
+        };
+    }
+
+    // ------------------- treap 내부 (경로 복사) -------------------
+
+    /** 앞 k개와 나머지로 나눈다. 원래 노드는 건드리지 않는다. */
+    private static <T> Node<T>[] split(Node<T> n, int k) {
+        if (n == null || k <= 0) return pair(null, n);
+        if (k >= n.size) return pair(n, null);
+        int ls = size(n.left);
+        if (k <= ls) {
+            Node<T>[] lr = split(n.left, k);
+            lr[1] = n.with(lr[1], n.right);
+            return lr;
+        }
+        Node<T>[] lr = split(n.right, k - ls - 1);
+        lr[0] = n.with(n.left, lr[0]);
+        return lr;
+    }
+
+    /** split이 돌려주는 (앞, 뒤) 한 쌍 */
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] pair(Node<T> left, Node<T> right) {
+        return (Node<T>[]) new Node<?>[]{left, right};
+    }
+
+    private static <T> Node<T> merge(Node<T> a, Node<T> b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a.priority > b.priority) return a.with(a.left, merge(a.right, b));
+        return b.with(merge(a, b.left), b.right);
+    }
+
+    private static <T> Node<T> set(Node<T> n, int idx, T value) {
+        int ls = size(n.left);
+        if (idx < ls) return n.with(set(n.left, idx, value), n.right);
+        if (idx > ls) return n.with(n.left, set(n.right, idx - ls - 1, value));
+        return new Node<>(value, n.priority, n.left, n.right);
+    }
+
+    /**
+     * 차례대로 treap을 O(n)에 쌓는다. 오른쪽 가장자리를 스택으로 들고, 우선순위가 더 큰 노드가 오면
+     * 밀려난 것들을 왼쪽 자식으로 단다(아직 아무도 못 본 새 노드만 고친다).
+     */
+    private static <T> Node<T> build(Collection<? extends T> values) {
+        Deque<Node<T>> spine = new ArrayDeque<>();
+        for (T v : values) {
+            Node<T> n = new Node<>(v, nextPriority(), null, null);
+            Node<T> last = null;
+            while (!spine.isEmpty() && spine.peek().priority < n.priority) {
+                last = spine.pop();
+                last.update();
+            }
+            n.left = last;
+            if (!spine.isEmpty()) spine.peek().right = n;
+            spine.push(n);
+        }
+        Node<T> top = null;
+        while (!spine.isEmpty()) {
+            top = spine.pop();
+            top.update();
+        }
+        return top;
+    }
+
+    private static int nextPriority() { return ThreadLocalRandom.current().nextInt(); }
+
+    private static int size(Node<?> n) { return n == null ? 0 : n.size; }
+
+    private static int present(Node<?> n) { return n == null ? 0 : n.present; }
+
+    /** 목록에 들어간 뒤에는 고치지 않는다(고칠 때는 with로 새로 만든다). */
+    private static final class Node<T> {
+        final T value;
+        final int priority;
+        Node<T> left, right;
+        int size, present;
+
+        Node(T value, int priority, Node<T> left, Node<T> right) {
+            this.value = value;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            update();
+        }
+
+        Node<T> with(Node<T> left, Node<T> right) { return new Node<>(value, priority, left, right); }
+
+        void update() {
+            size = 1 + size(left) + size(right);
+            present = (value != null ? 1 : 0) + present(left) + present(right);
+        }
+    }
+}
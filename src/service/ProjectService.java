@@ -1,51 +1,73 @@
 package service;
 
-import exceptions.NotFoundException;
 import exceptions.ValidationException;
+import metrics.LatencyTimer;
+import metrics.Metrics;
 import model.Project;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Locale;
-import java.util.stream.Collectors;
 
 public class ProjectService {
 
+    private static final LatencyTimer ADD = Metrics.timer("project.add");
+    private static final LatencyTimer CHANGE_STATUS = Metrics.timer("project.changeStatus");
+    private static final LatencyTimer SEARCH = Metrics.timer("project.search");
+    private static final LatencyTimer BROWSE = Metrics.timer("project.browse");
+    private static final LatencyTimer DEADLINE = Metrics.timer("project.deadlineClose");
+
     private final DataStore store;
 
     public ProjectService(DataStore store) { this.store = store; }
 
-    public void addProject(String title, String owner, LocalDate start, LocalDate due) {
+    /** 시작 직후 백그라운드 불러오기 중이면 프로젝트가 다 읽힐 때까지 기다린다(소비 내역은 기다리지 않음). */
+    private void ready() { store.awaitLoaded(DataStore.Part.PROJECTS); }
+
+    public Project addProject(String title, String owner, LocalDate start, LocalDate due) {
+        ready();
+        Project p = newProject(title, owner, start, due);
+        ADD.run(() -> store.addProject(p));
+        return p;
+    }
+
+    /** 값을 확인해 새 프로젝트를 만든다(저장소에는 넣지 않음). 대량 가져오기도 같은 규칙을 쓴다. */
+    public static Project newProject(String title, String owner, LocalDate start, LocalDate due) {
         if (title == null || title.isBlank()) throw new ValidationException("프로젝트 제목이 비었습니다.");
         if (owner == null || owner.isBlank()) throw new ValidationException("담당자 이름이 비었습니다.");
         if (start == null || due == null) throw new ValidationException("시작일/마감일이 필요합니다.");
         if (due.isBefore(start)) throw new ValidationException("마감일은 시작일 이후여야 합니다.");
-        store.getProjects().add(new Project(title, "진행중", owner, start, due));
+        return new Project(title, "진행중", owner, start, due);
     }
 
-    public void changeStatus(int indexZeroBased, String newStatus) {
-        if (indexZeroBased < 0 || indexZeroBased >= store.getProjects().size())
-            throw new NotFoundException("존재하지 않는 프로젝트 번호: " + (indexZeroBased + 1));
+    /** 바뀐 프로젝트를 돌려준다(없으면 NotFoundException). */
+    public Project changeStatus(long id, String newStatus) {
+        ready();
         if (newStatus == null || newStatus.isBlank())
             throw new ValidationException("새 상태가 비어 있습니다.");
-        store.getProject(indexZeroBased).setStatus(newStatus);
+        return CHANGE_STATUS.time(() -> store.changeProjectStatusById(id, newStatus));
     }
 
     public List<Project> search(String keyword) {
+        ready();
+        String kw = (keyword == null) ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        return SEARCH.time(() -> store.searchProjects(kw));
+    }
+
+    /** 목록 화면용: 제목/담당자/상태 검색어(비우면 전체), byDueDate면 마감일순 */
+    public PagedView<Project> browse(String keyword, boolean byDueDate) {
+        ready();
         String kw = (keyword == null) ? "" : keyword.trim().toLowerCase(Locale.ROOT);
-        return store.getProjects().stream()
-                .filter(p -> p.getTitle().toLowerCase(Locale.ROOT).contains(kw)
-                        || p.getOwner().toLowerCase(Locale.ROOT).contains(kw)
-                        || p.getStatus().toLowerCase(Locale.ROOT).contains(kw))
-                .collect(Collectors.toList());
+        return BROWSE.time(() -> store.projectView(kw, byDueDate));
     }
 
     public List<Project> deadlineClose(int daysInclusive) {
+        ready();
         var now = LocalDate.now();
         var limit = now.plusDays(Math.max(daysInclusive, 0));
-        return store.getProjects().stream()
+        return DEADLINE.time(() -> store.getProjects().stream()
                 .filter(p -> !p.getDueDate().isBefore(now) && !p.getDueDate().isAfter(limit))
                 .sorted(java.util.Comparator.comparing(Project::getDueDate))
-                .collect(java.util.stream.Collectors.toList());
+                .collect(java.util.stream.Collectors.toList()));
     }
 }
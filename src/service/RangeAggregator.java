@@ -0,0 +1,221 @@
+package service;
+
+import model.Project;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 기간 리포트 계산기. 행 구간을 반씩 쪼개는 fork-join 작업으로 나눠 부분 집계를 만들고 합친다.
+ * 구매일 → 월 변환은 각 달 시작일(epoch-day) 배열에서 이분 탐색해 행마다 객체를 만들지 않는다.
+ */
+final class RangeAggregator {
+
+    private static final int LEAF_ROWS = 1 << 15;
+
+    /** 소비 행 읽기 창구. 목록 모드와 열 저장 모드가 같은 계산을 쓰도록 한다. */
+    interface ExpenseRows {
+        int size();
+        int price(int row);
+        long day(int row);        // epoch-day
+        String category(int row);
+        String status(int row);
+    }
+
+    private final YearMonth from;
+    private final int months;
+    private final int firstYear, years;
+    private final long[] monthStart; // [months + 1], 마지막은 기간 끝(포함 안 함)
+
+    RangeAggregator(YearMonth from, YearMonth to) {
+        this.from = from;
+        this.months = (int) (to.getYear() * 12L + to.getMonthValue() - (from.getYear() * 12L + from.getMonthValue())) + 1;
+        this.firstYear = from.getYear();
+        this.years = to.getYear() - firstYear + 1;
+        this.monthStart = new long[months + 1];
+        for (int m = 0; m <= months; m++) monthStart[m] = from.plusMonths(m).atDay(1).toEpochDay();
+    }
+
+    /** 기간 밖이면 -1 */
+    private int monthIndex(long day) {
+        if (day < monthStart[0] || day >= monthStart[months]) return -1;
+        int i = Arrays.binarySearch(monthStart, day);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    private int yearIndex(int month) {
+        return (from.getMonthValue() - 1 + month) / 12;
+    }
+
+    // ------------------- 소비 -------------------
+    ExpensePartial expenses(ExpenseRows rows) {
+        return new ExpenseTask(rows, 0, rows.size()).invoke();
+    }
+
+    final class ExpensePartial {
+        final long[] monthTotal = new long[months];
+        final long[] monthCount = new long[months];
+        final Map<String, long[]> byCategory = new HashMap<>();  // {total, count}
+        final Map<String, long[]> byStatus = new HashMap<>();
+        final Map<String, long[]> categoryYear = new HashMap<>(); // 연도별 합계
+
+        void add(int month, int price, String category, String status) {
+            monthTotal[month] += price;
+            monthCount[month]++;
+            long[] c = byCategory.computeIfAbsent(category, k -> new long[2]);
+            c[0] += price;
+            c[1]++;
+            long[] s = byStatus.computeIfAbsent(status, k -> new long[2]);
+            s[0] += price;
+            s[1]++;
+            categoryYear.computeIfAbsent(category, k -> new long[years])[yearIndex(month)] += price;
+        }
+
+        ExpensePartial merge(ExpensePartial o) {
+            for (int m = 0; m < months; m++) { monthTotal[m] += o.monthTotal[m]; monthCount[m] += o.monthCount[m]; }
+            mergeInto(byCategory, o.byCategory);
+            mergeInto(byStatus, o.byStatus);
+            mergeInto(categoryYear, o.categoryYear);
+            return this;
+        }
+    }
+
+    private final class ExpenseTask extends RecursiveTask<ExpensePartial> {
+        private final ExpenseRows rows;
+        private final int lo, hi;
+
+        ExpenseTask(ExpenseRows rows, int lo, int hi) { this.rows = rows; this.lo = lo; this.hi = hi; }
+
+        @Override
+        protected ExpensePartial compute() {
+            if (hi - lo <= LEAF_ROWS) {
+                ExpensePartial p = new ExpensePartial();
+                for (int r = lo; r < hi; r++) {
+                    int m = monthIndex(rows.day(r));
+                    if (m >= 0) p.add(m, rows.price(r), nz(rows.category(r)), nz(rows.status(r)));
+                }
+                return p;
+            }
+            int mid = (lo + hi) >>> 1;
+            ExpenseTask left = new ExpenseTask(rows, lo, mid);
+            left.fork();
+            ExpensePartial right = new ExpenseTask(rows, mid, hi).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // ------------------- 프로젝트 (마감일 기준) -------------------
+    ProjectPartial projects(List<Project> projects) {
+        return new ProjectTask(projects, 0, projects.size()).invoke();
+    }
+
+    final class ProjectPartial {
+        final long[] byDueMonth = new long[months];
+        final Map<String, long[]> byOwner = new HashMap<>();
+        final Map<String, long[]> byStatus = new HashMap<>();
+        long count;
+
+        ProjectPartial merge(ProjectPartial o) {
+            for (int m = 0; m < months; m++) byDueMonth[m] += o.byDueMonth[m];
+            mergeInto(byOwner, o.byOwner);
+            mergeInto(byStatus, o.byStatus);
+            count += o.count;
+            return this;
+        }
+    }
+
+    private final class ProjectTask extends RecursiveTask<ProjectPartial> {
+        private final List<Project> projects;
+        private final int lo, hi;
+
+        ProjectTask(List<Project> projects, int lo, int hi) { this.projects = projects; this.lo = lo; this.hi = hi; }
+
+        @Override
+        protected ProjectPartial compute() {
+            if (hi - lo <= LEAF_ROWS) {
+                ProjectPartial p = new ProjectPartial();
+                for (int i = lo; i < hi; i++) {
+                    Project prj = projects.get(i);
+                    LocalDate due = prj.getDueDate();
+                    int m = due == null ? -1 : monthIndex(due.toEpochDay());
+                    if (m < 0) continue;
+                    p.byDueMonth[m]++;
+                    p.byOwner.computeIfAbsent(nz(prj.getOwner()), k -> new long[1])[0]++;
+                    p.byStatus.computeIfAbsent(nz(prj.getStatus()), k -> new long[1])[0]++;
+                    p.count++;
+                }
+                return p;
+            }
+            int mid = (lo + hi) >>> 1;
+            ProjectTask left = new ProjectTask(projects, lo, mid);
+            left.fork();
+            ProjectPartial right = new ProjectTask(projects, mid, hi).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    // ------------------- 결과 -------------------
+    RangeReport build(YearMonth to, ExpensePartial e, ProjectPartial p) {
+        SortedMap<YearMonth, RangeReport.Amount> byMonth = new TreeMap<>();
+        SortedMap<Integer, RangeReport.Amount> byYear = new TreeMap<>();
+        SortedMap<YearMonth, Integer> dueMonth = new TreeMap<>();
+        long total = 0, count = 0;
+        long[][] yearSum = new long[years][2];
+        for (int m = 0; m < months; m++) {
+            YearMonth ym = from.plusMonths(m);
+            byMonth.put(ym, new RangeReport.Amount(e.monthTotal[m], e.monthCount[m]));
+            dueMonth.put(ym, (int) p.byDueMonth[m]);
+            total += e.monthTotal[m];
+            count += e.monthCount[m];
+            yearSum[yearIndex(m)][0] += e.monthTotal[m];
+            yearSum[yearIndex(m)][1] += e.monthCount[m];
+        }
+        for (int y = 0; y < years; y++) byYear.put(firstYear + y, new RangeReport.Amount(yearSum[y][0], yearSum[y][1]));
+
+        Map<String, SortedMap<Integer, Long>> categoryYear = new LinkedHashMap<>();
+        for (String cat : sortedByFirst(e.byCategory).keySet()) {
+            SortedMap<Integer, Long> ys = new TreeMap<>();
+            long[] v = e.categoryYear.get(cat);
+            for (int y = 0; y < years; y++) ys.put(firstYear + y, v[y]);
+            categoryYear.put(cat, Collections.unmodifiableSortedMap(ys));
+        }
+
+        return new RangeReport(from, to, new RangeReport.Amount(total, count),
+                Collections.unmodifiableSortedMap(byMonth), Collections.unmodifiableSortedMap(byYear),
+                amounts(e.byCategory), amounts(e.byStatus), Collections.unmodifiableMap(categoryYear),
+                (int) p.count, counts(p.byOwner), counts(p.byStatus), Collections.unmodifiableSortedMap(dueMonth));
+    }
+
+    private static Map<String, RangeReport.Amount> amounts(Map<String, long[]> m) {
+        Map<String, RangeReport.Amount> out = new LinkedHashMap<>();
+        sortedByFirst(m).forEach((k, v) -> out.put(k, new RangeReport.Amount(v[0], v[1])));
+        return Collections.unmodifiableMap(out);
+    }
+
+    private static Map<String, Integer> counts(Map<String, long[]> m) {
+        Map<String, Integer> out = new LinkedHashMap<>();
+        sortedByFirst(m).forEach((k, v) -> out.put(k, (int) v[0]));
+        return Collections.unmodifiableMap(out);
+    }
+
+    /** 첫 값(합계/건수) 큰 순서, 같으면 이름순 */
+    private static Map<String, long[]> sortedByFirst(Map<String, long[]> m) {
+        List<Map.Entry<String, long[]>> es = new ArrayList<>(m.entrySet());
+        es.sort((a, b) -> a.getValue()[0] != b.getValue()[0]
+                ? Long.compare(b.getValue()[0], a.getValue()[0]) : a.getKey().compareTo(b.getKey()));
+        Map<String, long[]> out = new LinkedHashMap<>();
+        for (Map.Entry<String, long[]> en : es) out.put(en.getKey(), en.getValue());
+        return out;
+    }
+
+    private static void mergeInto(Map<String, long[]> into, Map<String, long[]> from) {
+        from.forEach((k, v) -> {
+            long[] cur = into.putIfAbsent(k, v);
+            if (cur != null) for (int i = 0; i < cur.length; i++) cur[i] += v[i];
+        });
+    }
+
+    private static String nz(String s) { return s == null ? "" : s; }
+}
@@ -0,0 +1,47 @@
+package service;
+
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.SortedMap;
+
+/**
+ * 기간 리포트 결과 (from ~ to, 양 끝 월 포함).
+ * 소비는 구매일, 프로젝트는 마감일이 기간 안에 드는 것만 센다.
+ * 월/연도 맵은 빈 달도 0으로 채워 순서대로 들어 있고, 분류/상태/담당자 맵은 금액(건수) 큰 순서다.
+ */
+public record RangeReport(
+        YearMonth from,
+        YearMonth to,
+        Amount expenseTotal,
+        SortedMap<YearMonth, Amount> expenseByMonth,
+        SortedMap<Integer, Amount> expenseByYear,
+        Map<String, Amount> expenseByCategory,
+        Map<String, Amount> expenseByStatus,
+        Map<String, SortedMap<Integer, Long>> expenseByCategoryYear,
+        int projectCount,
+        Map<String, Integer> projectsByOwner,
+        Map<String, Integer> projectsByStatus,
+        SortedMap<YearMonth, Integer> projectsByDueMonth) {
+
+    /** 합계와 건수 */
+    public record Amount(long total, long count) {
+        public static final Amount ZERO = new Amount(0, 0);
+    }
+
+    /** 전년 대비 소비 증감률 (0.1 = 10% 증가). 전년이 기간 밖이거나 0이면 비어 있다. */
+    public OptionalDouble yearOverYear(int year) {
+        Amount cur = expenseByYear.get(year), prev = expenseByYear.get(year - 1);
+        if (cur == null || prev == null || prev.total() == 0) return OptionalDouble.empty();
+        return OptionalDouble.of((cur.total() - prev.total()) / (double) prev.total());
+    }
+
+    /** 분류 하나의 전년 대비 증감률 */
+    public OptionalDouble yearOverYear(String category, int year) {
+        SortedMap<Integer, Long> byYear = expenseByCategoryYear.get(category);
+        if (byYear == null) return OptionalDouble.empty();
+        Long cur = byYear.get(year), prev = byYear.get(year - 1);
+        if (cur == null || prev == null || prev == 0) return OptionalDouble.empty();
+        return OptionalDouble.of((cur - prev) / (double) prev);
+    }
+}
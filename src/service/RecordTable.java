@@ -0,0 +1,81 @@
+package service;
+
+import model.Work;
+
+import java.util.*;
+
+/**
+ * id가 붙은 항목을 등록 순서대로 들고 있는 표. id → 칸 번호는 LongIntMap으로 O(1)에 찾는다.
+ * 칸은 VersionedList라 snapshot()으로 지금 판을 O(1)에 고정해 잠금 밖에서 읽을 수 있다.
+ * 삭제는 칸을 비워 두는 툼스톤이라 뒤쪽 칸 번호가 바뀌지 않고, 빈 칸이 살아 있는 수를 넘으면 한 번에 당긴다.
+ * 번호(등록 순서 위치) 접근은 빈 칸을 건너뛰고 세는 트리 탐색이라 O(log n).
+ * 고치는 것은 DataStore의 잠금 아래서만 한다.
+ */
+final class RecordTable<T extends Work> implements Iterable<T> {
+
+    private static final int MIN_COMPACT = 64;
+
+    private final VersionedList<T> slots = new VersionedList<>();
+    private int dead; // 빈 칸 수
+    private final LongIntMap slotOf = new LongIntMap();
+
+    int size() { return slots.size() - dead; }
+
+    boolean contains(long id) { return slotOf.containsKey(id); }
+
+    /** item의 id는 이미 정해져 있어야 한다. */
+    void add(T item) {
+        slotOf.put(item.getId(), slots.size());
+        slots.add(item);
+    }
+
+    /** 같은 id 항목을 새 객체로 갈아 끼운다. 옛 객체 (없으면 null) */
+    T replace(T item) {
+        int s = slotOf.get(item.getId(), -1);
+        return s < 0 ? null : slots.set(s, item);
+    }
+
+    /** 없으면 null */
+    T get(long id) {
+        int s = slotOf.get(id, -1);
+        return s < 0 ? null : slots.get(s);
+    }
+
+    /** 지운 항목 (없으면 null) */
+    T remove(long id) {
+        int s = slotOf.get(id, -1);
+        if (s < 0) return null;
+        slotOf.remove(id);
+        T item = slots.set(s, null);
+        dead++;
+        if (dead >= MIN_COMPACT && dead > size()) compact();
+        return item;
+    }
+
+    /** 등록 순서 idx번째 */
+    T at(int idx) { return slots.snapshot().getPresent(idx); }
+
+    void clear() {
+        slots.clear();
+        dead = 0;
+        slotOf.clear();
+    }
+
+    /** 지금 판의 살아 있는 항목 (등록 순서, 읽기 전용, 이후 변경이 보이지 않음) */
+    List<T> snapshot() { return slots.snapshot().present(); }
+
+    /** 살아 있는 항목 사본 (등록 순서) */
+    List<T> list() { return new ArrayList<>(snapshot()); }
+
+    @Override
+    public Iterator<T> iterator() { return snapshot().iterator(); }
+
+    /** 빈 칸을 없애고 칸 번호를 다시 매긴다. 옛 판을 들고 있는 쪽은 그대로 읽는다. */
+    private void compact() {
+        List<T> live = list();
+        slots.clear();
+        slots.addAll(live);
+        for (int s = 0; s < live.size(); s++) slotOf.put(live.get(s).getId(), s);
+        dead = 0;
+    }
+}
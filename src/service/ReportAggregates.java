@@ -0,0 +1,40 @@
+package service;
+
+import model.Project;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 리포트용 집계를 변경 시점에 바로 갱신해 두는 곳.
+ * 상태별 프로젝트 수를 O(1)로 꺼낼 수 있다.
+ * 월별 소비 합계는 구매월 조각 요약(ExpenseShards)이 들고 있다(안 읽은 달도 포함해야 하므로).
+ * 다가오는 일정 목록은 DataStore의 날짜순 일정 색인 앞부분을 그대로 쓴다.
+ */
+class ReportAggregates {
+
+    private final Map<String, Integer> projectsByStatus = new HashMap<>();
+
+    void projectAdded(Project p) { projectsByStatus.merge(p.getStatus(), 1, Integer::sum); }
+    void projectRemoved(Project p) { decrement(p.getStatus()); }
+
+    void projectStatusChanged(String oldStatus, String newStatus) {
+        decrement(oldStatus);
+        projectsByStatus.merge(newStatus, 1, Integer::sum);
+    }
+
+    /** 대량 적재(불러오기) 뒤 한 번에 다시 계산한다. */
+    void rebuildProjects(Iterable<Project> projects) {
+        projectsByStatus.clear();
+        for (Project p : projects) projectAdded(p);
+    }
+
+    int projectCount(String status) { return projectsByStatus.getOrDefault(status, 0); }
+
+    /** 상태별 프로젝트 수 사본 (스냅숏용) */
+    Map<String, Integer> projectCounts() { return new HashMap<>(projectsByStatus); }
+
+    private void decrement(String status) {
+        projectsByStatus.computeIfPresent(status, (k, n) -> n > 1 ? n - 1 : null);
+    }
+}
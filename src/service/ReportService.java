@@ -1,75 +1,204 @@
 package service;
 
 import exceptions.StorageException;
-import model.Expense;
-import model.Schedule;
+import exceptions.ValidationException;
+import metrics.Counter;
+import metrics.LatencyTimer;
+import metrics.Metrics;
+import model.ScheduleOccurrence;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class ReportService {
 
+    private static final int TOP = 5;
+    private static final int CACHE_SIZE = 64;          // 최근 월간 리포트 몇 개까지 들고 있을지
+    private static final int EXPORT_BUFFER = 64 * 1024;
+    private static final Path REPORT_DIR = Paths.get("data");
+
+    private static final LatencyTimer MONTHLY = Metrics.timer("report.monthly");
+    private static final LatencyTimer RENDER = Metrics.timer("report.monthly.render");
+    private static final LatencyTimer RANGE = Metrics.timer("report.range");
+    private static final LatencyTimer EXPORT = Metrics.timer("report.export");
+    private static final Counter CACHE_HIT = Metrics.counter("report.cache.hit");
+    private static final Counter CACHE_MISS = Metrics.counter("report.cache.miss");
+
     private final DataStore store;
 
+    // 월간 리포트 캐시: (월, 데이터 버전, 오늘 날짜)가 같으면 다시 만들지 않는다. 접근 순서 LRU.
+    private record CacheKey(YearMonth ym, long version, LocalDate today) {}
+    private final ReentrantLock cacheLock = new ReentrantLock();
+    private final Map<CacheKey, String> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override protected boolean removeEldestEntry(Map.Entry<CacheKey, String> eldest) { return size() > CACHE_SIZE; }
+    };
+    private long cachedVersion = -1;
+
     public ReportService(DataStore store) { this.store = store; }
 
+    /** 월간 리포트. 데이터가 바뀌지 않았으면 캐시된 글을 돌려준다(남은 일수 때문에 날짜가 바뀌어도 새로 만든다). */
     public String buildMonthlySummary(YearMonth ym) {
+        store.awaitLoaded(DataStore.Part.values());
+        return MONTHLY.time(() -> cachedMonthlySummary(store.snapshot(), ym));
+    }
+
+    /** 고정한 판 하나로 만들어 캐시 키의 버전과 내용이 어긋나지 않는다. */
+    private String cachedMonthlySummary(StoreSnapshot snap, YearMonth ym) {
+        long version = snap.version();
+        CacheKey key = new CacheKey(ym, version, LocalDate.now());
+        cacheLock.lock();
+        try {
+            if (version != cachedVersion) { cache.clear(); cachedVersion = version; } // 변경되면 전부 무효
+            String hit = cache.get(key);
+            if (hit != null) { CACHE_HIT.increment(); return hit; }
+        } finally {
+            cacheLock.unlock();
+        }
+        CACHE_MISS.increment();
+        String content = RENDER.time(() -> renderMonthlySummary(snap, ym, key.today()));
+        cacheLock.lock();
+        try {
+            if (version == cachedVersion) cache.put(key, content);
+        } finally {
+            cacheLock.unlock();
+        }
+        return content;
+    }
+
+    private String renderMonthlySummary(StoreSnapshot snap, YearMonth ym, LocalDate today) {
         StringBuilder sb = new StringBuilder();
         sb.append("📅 월간 활동 리포트 (").append(ym).append(")\n\n");
 
-        // ---- (A) null-세이프 월 합계 (범위 필터) ----
-        LocalDate start = ym.atDay(1);
-        LocalDate endExclusive = ym.plusMonths(1).atDay(1);
-
-        int totalExpense = store.getExpenses().stream()
-                .filter(e -> {
-                    var d = e.getPurchaseDate();
-                    return d != null && !d.isBefore(start) && d.isBefore(endExclusive);
-                })
-                .mapToInt(Expense::getPrice)
-                .sum();
+        // ---- (A) 월 합계: 변경 때마다 갱신해 둔 구매월 조각 요약 (조각 파일은 읽지 않음) ----
+        long totalExpense = snap.expenseTotalOf(ym);
         sb.append("💰 총 소비액: ").append(totalExpense).append("원\n");
 
-        long ongoing = store.getProjects().stream().filter(p -> "진행중".equals(p.getStatus())).count();
-        long done = store.getProjects().stream().filter(p -> "완료".equals(p.getStatus())).count();
+        int ongoing = snap.projectCountByStatus("진행중");
+        int done = snap.projectCountByStatus("완료");
 
         sb.append("\n📂 프로젝트 현황:\n")
           .append(" - 진행중: ").append(ongoing).append("개\n")
           .append(" - 완료: ").append(done).append("개\n");
 
-        var upcoming = store.getSchedules().values().stream()
-                .sorted(java.util.Comparator.comparing(Schedule::getDate))
-                .limit(5).collect(Collectors.toList());
+        var upcoming = snap.upcomingSchedules(today, 5);
 
         if (!upcoming.isEmpty()) {
             sb.append("\n🗓️ 다가오는 일정:\n");
-            for (Schedule s : upcoming) {
+            for (ScheduleOccurrence s : upcoming) {
                 sb.append(" - ").append(s.getName()).append(": ")
                   .append(s.getDate()).append(" (")
-                  .append(s.getRemainingDays()).append("일 남음)\n");
+                  .append(s.remainingDays()).append("일 남음)\n");
             }
         }
         return sb.toString();
     }
 
+    /**
+     * from~to(양 끝 월 포함) 기간 리포트. 월/연도/분류/상태별 소비와 담당자/상태/마감월별 프로젝트를
+     * fork-join으로 나눠 집계한 구조화된 결과를 돌려준다. 필요한 달을 읽은 뒤 저장소를 고정하고
+     * 잠금 없이 계산하므로, 오래 걸려도 그동안 입력/삭제를 막지 않는다.
+     */
+    public RangeReport buildRangeReport(YearMonth from, YearMonth to) {
+        if (from == null || to == null) throw new ValidationException("기간의 시작/끝 월이 필요합니다.");
+        if (to.isBefore(from)) throw new ValidationException("끝 월은 시작 월 이후여야 합니다.");
+        store.awaitLoaded(DataStore.Part.EXPENSES, DataStore.Part.PROJECTS);
+        return RANGE.time(() -> {
+            RangeAggregator agg = new RangeAggregator(from, to);
+            StoreSnapshot snap = store.snapshot(from, to);
+            RangeAggregator.ExpensePartial expenses = agg.expenses(snap.expenseRows());
+            RangeAggregator.ProjectPartial projects = agg.projects(snap.projects());
+            return agg.build(to, expenses, projects);
+        });
+    }
+
+    /** 기간 리포트를 화면용 글로 (연도별 합계와 전년 대비, 분류/담당자 상위 항목) */
+    public String formatRangeReport(RangeReport r) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("📊 기간 리포트 (").append(r.from()).append(" ~ ").append(r.to()).append(")\n\n");
+        sb.append("💰 총 소비액: ").append(r.expenseTotal().total()).append("원 (")
+          .append(r.expenseTotal().count()).append("건)\n");
+
+        sb.append("\n📆 연도별:\n");
+        r.expenseByYear().forEach((year, a) -> {
+            sb.append(" - ").append(year).append(": ").append(a.total()).append("원");
+            r.yearOverYear(year).ifPresent(d -> sb.append(String.format(" (전년 대비 %+.1f%%)", d * 100)));
+            sb.append("\n");
+        });
+
+        sb.append("\n🏷️ 분류별 (상위 ").append(TOP).append("):\n");
+        r.expenseByCategory().entrySet().stream().limit(TOP).forEach(en ->
+                sb.append(" - ").append(en.getKey()).append(": ").append(en.getValue().total()).append("원\n"));
+
+        sb.append("\n📂 마감 프로젝트 ").append(r.projectCount()).append("개\n");
+        r.projectsByStatus().forEach((st, n) -> sb.append(" - ").append(st).append(": ").append(n).append("개\n"));
+        sb.append(" 담당자 상위:");
+        r.projectsByOwner().entrySet().stream().limit(TOP).forEach(en ->
+                sb.append(" ").append(en.getKey()).append("(").append(en.getValue()).append(")"));
+        return sb.append("\n").toString();
+    }
+
     public Path saveMonthlySummaryToTxt(YearMonth ym) {
-        String content = buildMonthlySummary(ym);
-        Path dir = Paths.get("data");
-        Path path = dir.resolve("report_" + ym.getYear() + "_" + String.format("%02d", ym.getMonthValue()) + ".txt");
+        return exportMonthlySummaries(ym, ym, REPORT_DIR).get(0);
+    }
+
+    /**
+     * from~to(양 끝 포함) 월간 리포트를 월마다 report_YYYY_MM.txt로 dir에 한 번에 쓴다.
+     * 버퍼 하나를 재사용해 FileChannel로 바로 인코딩해 쓰고, 리포트는 캐시를 거친다.
+     * 모든 달을 처음에 고정한 한 판에서 만들어, 쓰는 도중 데이터가 바뀌어도 파일끼리 어긋나지 않는다.
+     */
+    public List<Path> exportMonthlySummaries(YearMonth from, YearMonth to, Path dir) {
+        if (from == null || to == null) throw new ValidationException("기간의 시작/끝 월이 필요합니다.");
+        if (to.isBefore(from)) throw new ValidationException("끝 월은 시작 월 이후여야 합니다.");
+        store.awaitLoaded(DataStore.Part.values());
+        return EXPORT.time(() -> writeMonthlySummaries(store.snapshot(), from, to, dir));
+    }
+
+    private List<Path> writeMonthlySummaries(StoreSnapshot snap, YearMonth from, YearMonth to, Path dir) {
+        List<Path> written = new ArrayList<>();
+        ByteBuffer buf = ByteBuffer.allocateDirect(EXPORT_BUFFER);
+        CharsetEncoder enc = StandardCharsets.UTF_8.newEncoder();
+        Path path = dir;
         try {
             Files.createDirectories(dir);
-            try (BufferedWriter bw = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
-                bw.write(content);
+            for (YearMonth ym = from; !ym.isAfter(to); ym = ym.plusMonths(1)) {
+                path = dir.resolve("report_" + ym.getYear() + "_" + String.format("%02d", ym.getMonthValue()) + ".txt");
+                try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    YearMonth month = ym;
+                    writeEncoded(ch, MONTHLY.time(() -> cachedMonthlySummary(snap, month)), enc, buf);
+                }
+                written.add(path);
             }
-            return path;
+            return written;
         } catch (IOException e) {
             throw new StorageException("리포트 저장 실패: " + path.toAbsolutePath(), e);
         }
     }
+
+    private static void writeEncoded(FileChannel ch, String text, CharsetEncoder enc, ByteBuffer buf) throws IOException {
+        CharBuffer in = CharBuffer.wrap(text);
+        enc.reset();
+        CoderResult r;
+        do {
+            buf.clear();
+            r = enc.encode(in, buf, true);
+            if (r.isError()) r.throwException();
+            if (r.isUnderflow()) enc.flush(buf); // 입력을 다 썼으면 인코더에 남은 것까지
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+        } while (r.isOverflow());
+    }
 }
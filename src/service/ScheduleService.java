@@ -2,49 +2,124 @@ package service;
 
 import exceptions.NotFoundException;
 import exceptions.ValidationException;
+import metrics.LatencyTimer;
+import metrics.Metrics;
+import model.Recurrence;
 import model.Schedule;
+import model.ScheduleOccurrence;
 
+import java.time.Clock;
 import java.time.LocalDate;
-import java.util.Comparator;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 public class ScheduleService {
 
+    private static final LatencyTimer ADD = Metrics.timer("schedule.add");
+    private static final LatencyTimer REMOVE = Metrics.timer("schedule.remove");
+    private static final LatencyTimer ALL = Metrics.timer("schedule.all");
+    private static final LatencyTimer BROWSE = Metrics.timer("schedule.browse");
+    private static final LatencyTimer BY_MONTH = Metrics.timer("schedule.byMonth");
+    private static final LatencyTimer UPCOMING = Metrics.timer("schedule.upcoming");
+
     private final DataStore store;
+    private final Clock clock;
+
+    public ScheduleService(DataStore store) { this(store, Clock.systemDefaultZone()); }
+
+    /** clock: "오늘"을 정하는 시계. 조회마다 한 번만 읽어 모든 항목의 남은 일수에 같이 쓴다. */
+    public ScheduleService(DataStore store, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+    }
+
+    /** 지금 시계 기준 오늘 (화면/응답이 남은 일수를 셀 때 한 번 구해 쓴다) */
+    public LocalDate today() { return LocalDate.now(clock); }
 
-    public ScheduleService(DataStore store) { this.store = store; }
+    /** 시작 직후 백그라운드 불러오기 중이면 일정이 다 읽힐 때까지 기다린다(소비 내역은 기다리지 않음). */
+    private void ready() { store.awaitLoaded(DataStore.Part.SCHEDULES); }
 
-    public void addSchedule(String name, LocalDate date, String memo) {
+    public Schedule addSchedule(String name, LocalDate date, String memo) {
+        return addSchedule(name, date, memo, null);
+    }
+
+    /** recurrence가 null이면 한 번짜리. 반복 일정도 규칙 하나로만 저장하고 회차는 조회할 때 만든다. */
+    public Schedule addSchedule(String name, LocalDate date, String memo, Recurrence recurrence) {
+        ready();
+        Schedule s = newSchedule(name, date, memo, recurrence);
+        if (!ADD.time(() -> store.putScheduleIfAbsent(name, s)))
+            throw new ValidationException("중복된 일정 키입니다: " + name);
+        return s;
+    }
+
+    /** 값을 확인해 새 일정을 만든다(저장소에는 넣지 않음). 대량 가져오기도 같은 규칙을 쓴다. */
+    public static Schedule newSchedule(String name, LocalDate date, String memo) {
+        return newSchedule(name, date, memo, null);
+    }
+
+    public static Schedule newSchedule(String name, LocalDate date, String memo, Recurrence recurrence) {
         if (name == null || name.isBlank()) throw new ValidationException("일정 이름(키)은 비어 있을 수 없습니다.");
         if (date == null) throw new ValidationException("일정 날짜가 필요합니다.");
-        if (store.getSchedules().containsKey(name))
-            throw new ValidationException("중복된 일정 키입니다: " + name);
-        store.putSchedule(name, new Schedule(name, date, memo == null ? "" : memo));
+        if (recurrence != null && recurrence.getUntil() != null && recurrence.getUntil().isBefore(date))
+            throw new ValidationException("반복 끝 날짜는 시작 날짜 이후여야 합니다.");
+        return new Schedule(name, date, memo == null ? "" : memo, recurrence);
     }
 
-    public void removeSchedule(String name) {
-        if (!store.getSchedules().containsKey(name))
+    /** 반복 규칙 글자(WEEKLY, MONTHLY:1:2027-12-31, DAILY:10 등)를 읽는다. 비어 있으면 null(반복 없음). */
+    public static Recurrence parseRecurrence(String text) {
+        try {
+            return Recurrence.parse(text);
+        } catch (RuntimeException e) {
+            throw new ValidationException("반복 형식이 잘못되었습니다. 예) WEEKLY, MONTHLY:1:2027-12-31, DAILY:10 (" + text + ")");
+        }
+    }
+
+    public Schedule removeSchedule(String name) {
+        ready();
+        if (!store.containsSchedule(name))
             throw new NotFoundException("존재하지 않는 일정 키입니다: " + name);
-        store.removeSchedule(name);
+        return REMOVE.time(() -> store.removeSchedule(name));
     }
 
     public Map<String, Schedule> all() {
-        return java.util.Collections.unmodifiableMap(store.getSchedules());
+        ready();
+        return ALL.time(store::getSchedules);
+    }
+
+    /** 목록 화면용: 이름/메모 검색어(비우면 전체), byDate면 날짜순 아니면 등록순 */
+    public PagedView<Schedule> browse(String keyword, boolean byDate) {
+        ready();
+        String kw = (keyword == null) ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        return BROWSE.time(() -> store.scheduleView(kw, byDate));
+    }
+
+    /**
+     * 날짜 [from, toExclusive) 일정 회차를 날짜순으로 하나씩 꺼내는 커서 (toExclusive가 null이면 끝 없음).
+     * 반복 일정은 그 구간 회차만 꺼낼 때 만든다.
+     */
+    public Iterator<ScheduleOccurrence> occurrences(LocalDate from, LocalDate toExclusive) {
+        ready();
+        return store.scheduleOccurrences(from, toExclusive, today());
+    }
+
+    /** 그 달의 회차 (반복 일정은 그 달에 걸친 날짜만) */
+    public List<ScheduleOccurrence> byMonth(int year, int month) {
+        YearMonth ym = YearMonth.of(year, month);
+        return BY_MONTH.time(() -> take(occurrences(ym.atDay(1), ym.plusMonths(1).atDay(1)), Integer.MAX_VALUE));
     }
 
-    public List<Schedule> byMonth(int year, int month) {
-        return store.getSchedules().values().stream()
-                .filter(s -> s.getDate().getYear() == year && s.getDate().getMonthValue() == month)
-                .sorted(Comparator.comparing(Schedule::getDate))
-                .collect(Collectors.toList());
+    /** 오늘 이후(포함) 회차 limit개 */
+    public List<ScheduleOccurrence> upcoming(int limit) {
+        return UPCOMING.time(() -> take(occurrences(today(), null), limit));
     }
 
-    public List<Schedule> upcoming(int limit) {
-        return store.getSchedules().values().stream()
-                .sorted(Comparator.comparing(Schedule::getDate))
-                .limit(Math.max(limit, 0))
-                .collect(Collectors.toList());
+    private static List<ScheduleOccurrence> take(Iterator<ScheduleOccurrence> it, int limit) {
+        List<ScheduleOccurrence> out = new ArrayList<>();
+        while (out.size() < limit && it.hasNext()) out.add(it.next());
+        return out;
     }
 }
@@ -0,0 +1,38 @@
+package service;
+
+import model.Expense;
+import model.Project;
+import model.Schedule;
+
+/**
+ * 저장소 변경 이벤트 (DataStore.changes()로 구독).
+ * version은 그 변경 직후의 저장소 버전이다. 같은 부분(소비/프로젝트/일정) 안에서는 일어난 순서대로 오고,
+ * 부분이 다르면 버전이 앞뒤로 섞여 올 수 있다.
+ * Reset/Resync를 받으면 그 부분(Resync는 전부)을 다시 읽고, 다시 읽은 판의 version() 이하 이벤트는 건너뛴다.
+ */
+public sealed interface StoreEvent {
+
+    long version();
+
+    record ExpenseAdded(long version, Expense expense) implements StoreEvent {}
+
+    record ExpenseRemoved(long version, Expense expense) implements StoreEvent {}
+
+    record ProjectAdded(long version, Project project) implements StoreEvent {}
+
+    /** 상태가 바뀌면 같은 id의 새 객체로 갈아 끼워진다(before → after). */
+    record ProjectStatusChanged(long version, Project before, Project after) implements StoreEvent {}
+
+    record ProjectRemoved(long version, Project project) implements StoreEvent {}
+
+    /** replaced: 같은 키로 있던 일정 (없었으면 null) */
+    record SchedulePut(long version, String key, Schedule schedule, Schedule replaced) implements StoreEvent {}
+
+    record ScheduleRemoved(long version, String key, Schedule schedule) implements StoreEvent {}
+
+    /** 그 부분이 한꺼번에 바뀌었다(비우기, 조각 목록 교체, 대량 불러오기 끝). */
+    record Reset(long version, DataStore.Part part) implements StoreEvent {}
+
+    /** 구독자가 밀려 버퍼가 넘쳐서 그 사이 이벤트를 버렸다(version = 버린 것 중 마지막). 전부 다시 읽는다. */
+    record Resync(long version) implements StoreEvent {}
+}
@@ -0,0 +1,100 @@
+package service;
+
+import model.Expense;
+import model.Project;
+import model.Schedule;
+import model.ScheduleOccurrence;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+/**
+ * 한 시점에 고정한 저장소 판 (DataStore.snapshot()).
+ * 목록은 저장소와 구조를 공유하는 고정판이라 만드는 데 O(1)이고(달 요약과 상태별 개수만 복사),
+ * 리포트/내보내기/저장이 잠금 없이 오래 읽어도 그사이 변경이 섞이지 않으며 쓰는 쪽도 막지 않는다.
+ * 아무도 들고 있지 않은 옛 판은 GC가 가져간다.
+ * 소비 행은 고정할 때 메모리에 올라와 있던 달만 들어 있다(월 합계는 안 읽은 달도 포함).
+ */
+public final class StoreSnapshot {
+
+    private final long version;
+    private final List<Expense> expenses;
+    private final DataStore.ExpenseShardImage expenseShards;
+    private final List<Project> projects;
+    private final Map<String, Integer> projectsByStatus;
+    private final List<Schedule> schedules;
+    private final OrderedIndex<Schedule> schedulesByDate, recurringByDate;
+    private RangeAggregator.ExpenseRows expenseRows; // 처음 쓸 때 만든다
+
+    StoreSnapshot(long version, List<Expense> expenses, DataStore.ExpenseShardImage expenseShards,
+                  List<Project> projects, Map<String, Integer> projectsByStatus,
+                  List<Schedule> schedules, OrderedIndex<Schedule> schedulesByDate,
+                  OrderedIndex<Schedule> recurringByDate) {
+        this.version = version;
+        this.expenses = expenses;
+        this.expenseShards = expenseShards;
+        this.projects = projects;
+        this.projectsByStatus = projectsByStatus;
+        this.schedules = schedules;
+        this.schedulesByDate = schedulesByDate;
+        this.recurringByDate = recurringByDate;
+    }
+
+    /** 고정할 때의 저장소 버전 (캐시 키) */
+    public long version() { return version; }
+
+    // ------------------- Expense -------------------
+
+    /** 메모리에 있던 달의 소비 내역 (구매월 순, 읽기 전용) */
+    public List<Expense> expenses() { return expenses; }
+
+    /** 월 합계 (안 읽은 달 포함) */
+    public long expenseTotalOf(YearMonth ym) {
+        DataStore.MonthSummary s = expenseShards.months().get(ym);
+        return s == null ? 0 : s.total();
+    }
+
+    /** 저장용: 달별 요약, 바뀐 달의 행, 바뀐 달의 변경 버전 */
+    public DataStore.ExpenseShardImage expenseShards() { return expenseShards; }
+
+    /**
+     * 기간 리포트용 행 창구. 열 저장 모드는 고정판을 그대로 쓰고,
+     * 목록 모드는 트리를 한 번 배열로 펴서(O(n)) 행 접근을 O(1)로 만든다.
+     */
+    synchronized RangeAggregator.ExpenseRows expenseRows() {
+        if (expenseRows != null) return expenseRows;
+        if (expenses instanceof ExpenseColumns columns) return expenseRows = columns;
+        Expense[] rows = expenses.toArray(new Expense[0]);
+        return expenseRows = new RangeAggregator.ExpenseRows() {
+            @Override public int size() { return rows.length; }
+            @Override public int price(int row) { return rows[row].getPrice(); }
+            @Override public long day(int row) {
+                LocalDate d = rows[row].getPurchaseDate();
+                return d == null ? Long.MIN_VALUE : d.toEpochDay();
+            }
+            @Override public String category(int row) { return rows[row].getCategory(); }
+            @Override public String status(int row) { return rows[row].getStatus(); }
+        };
+    }
+
+    // ------------------- Project -------------------
+
+    /** 등록 순서 (읽기 전용) */
+    public List<Project> projects() { return projects; }
+
+    public int projectCountByStatus(String status) { return projectsByStatus.getOrDefault(status, 0); }
+
+    // ------------------- Schedule -------------------
+
+    /** 등록 순서 (읽기 전용) */
+    public List<Schedule> schedules() { return schedules; }
+
+    /** today 이후(포함) 일정 회차 limit개 (반복 일정은 필요한 회차만 만든다) */
+    public List<ScheduleOccurrence> upcomingSchedules(LocalDate today, int limit) {
+        List<ScheduleOccurrence> out = new ArrayList<>();
+        Iterator<ScheduleOccurrence> it = new OccurrenceCursor(schedulesByDate, recurringByDate, today, null, today);
+        while (out.size() < limit && it.hasNext()) out.add(it.next());
+        return out;
+    }
+}
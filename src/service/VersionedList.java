@@ -0,0 +1,65 @@
+package service;
+
+import java.util.*;
+
+/**
+ * PersistentList의 판을 바꿔 가며 고치는 가변 목록. snapshot()은 지금 판을 O(1)에 돌려주고,
+ * 그 판은 이후 변경과 상관없이 그대로 남는다. 고치는 쪽은 바깥 잠금으로 한 스레드만 들어오고,
+ * 새 판은 volatile로 내보낸다. 순회도 시작할 때의 판을 돌므로 도중에 바뀌어도 예외가 나지 않는다.
+ */
+final class VersionedList<T> extends AbstractList<T> {
+
+    private volatile PersistentList<T> current = PersistentList.empty();
+
+    /** 지금 판 (읽기 전용, 이후 변경이 보이지 않음) */
+    PersistentList<T> snapshot() { return current; }
+
+    @Override public int size() { return current.size(); }
+
+    @Override public T get(int idx) { return current.get(idx); }
+
+    @Override
+    public T set(int idx, T value) {
+        PersistentList<T> cur = current;
+        T old = cur.get(idx);
+        current = cur.with(idx, value);
+        return old;
+    }
+
+    @Override
+    public boolean add(T value) {
+        current = current.plus(value);
+        return true;
+    }
+
+    @Override
+    public void add(int idx, T value) { current = current.plus(idx, value); }
+
+    @Override
+    public boolean addAll(Collection<? extends T> values) { return addAll(size(), values); }
+
+    @Override
+    public boolean addAll(int idx, Collection<? extends T> values) {
+        if (values.isEmpty()) return false;
+        current = current.plusAll(idx, values);
+        return true;
+    }
+
+    @Override
+    public T remove(int idx) {
+        PersistentList<T> cur = current;
+        T old = cur.get(idx);
+        current = cur.minus(idx);
+        return old;
+    }
+
+    @Override
+    public void clear() { current = PersistentList.empty(); }
+
+    @Override
+    public Iterator<T> iterator() { return current.iterator(); }
+
+    /** 지금 판의 [from, to) 구간 (복사 없이, 이후 변경이 보이지 않음) */
+    @Override
+    public List<T> subList(int from, int to) { return current.subList(from, to); }
+}
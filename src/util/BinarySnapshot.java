@@ -0,0 +1,205 @@
+package util;
+
+import exceptions.StorageException;
+import model.Expense;
+import model.Project;
+import model.Recurrence;
+import model.Schedule;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * 버전/체크섬이 붙은 바이너리 스냅샷 (FileChannel.map으로 읽음).
+ *
+ * 헤더: magic(int) version(int) seq(long) crc32(long) bodyLength(long)
+ * 본문: 소비/프로젝트/일정 개수, 문자열 테이블(오프셋 + UTF-8 blob), 고정 길이 레코드들
+ * 버전 2부터 소비/프로젝트 레코드 앞에 id(long)가 붙고, 버전 3부터 일정 레코드 끝에 반복 규칙 문자열이 붙는다
+ * (예전 버전은 열지 않고 텍스트 파일에서 읽는다).
+ * 레코드는 필드 오프셋으로 바로 접근하고 문자열은 처음 요청될 때만 디코딩한다.
+ */
+public final class BinarySnapshot {
+
+    private static final int MAGIC = 0x43574D53; // "CWMS"
+    private static final int VERSION = 3;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 8;
+    private static final int EXPENSE_BYTES = 8 + 5 * 4; // id title status price category day
+    private static final int PROJECT_BYTES = 8 + 5 * 4; // id title status owner startDay dueDay
+    private static final int SCHEDULE_BYTES = 4 * 4; // name day memo rule
+
+    private final ByteBuffer body;
+    private final long seq;
+    private final int expenseCount, projectCount, scheduleCount;
+    private final int stringOffsetsAt, stringBlobAt;
+    private final int expensesAt, projectsAt, schedulesAt;
+    private final String[] strings; // 디코딩된 문자열 캐시
+
+    private BinarySnapshot(ByteBuffer body, long seq) {
+        this.body = body;
+        this.seq = seq;
+        this.expenseCount = body.getInt(0);
+        this.projectCount = body.getInt(4);
+        this.scheduleCount = body.getInt(8);
+        int stringCount = body.getInt(12);
+        this.strings = new String[stringCount];
+        this.stringOffsetsAt = 16;
+        this.stringBlobAt = stringOffsetsAt + (stringCount + 1) * 4;
+        this.expensesAt = stringBlobAt + body.getInt(stringOffsetsAt + stringCount * 4);
+        this.projectsAt = expensesAt + expenseCount * EXPENSE_BYTES;
+        this.schedulesAt = projectsAt + projectCount * PROJECT_BYTES;
+    }
+
+    public long seq() { return seq; }
+    public int expenseCount() { return expenseCount; }
+    public int projectCount() { return projectCount; }
+    public int scheduleCount() { return scheduleCount; }
+
+    public Expense expense(int i) {
+        int at = expensesAt + Objects.checkIndex(i, expenseCount) * EXPENSE_BYTES;
+        Expense e = new Expense(string(body.getInt(at + 8)), string(body.getInt(at + 12)), body.getInt(at + 16),
+                string(body.getInt(at + 20)), LocalDate.ofEpochDay(body.getInt(at + 24)));
+        e.setId(body.getLong(at));
+        return e;
+    }
+
+    public Project project(int i) {
+        int at = projectsAt + Objects.checkIndex(i, projectCount) * PROJECT_BYTES;
+        Project p = new Project(string(body.getInt(at + 8)), string(body.getInt(at + 12)), string(body.getInt(at + 16)),
+                LocalDate.ofEpochDay(body.getInt(at + 20)), LocalDate.ofEpochDay(body.getInt(at + 24)));
+        p.setId(body.getLong(at));
+        return p;
+    }
+
+    public Schedule schedule(int i) {
+        int at = schedulesAt + Objects.checkIndex(i, scheduleCount) * SCHEDULE_BYTES;
+        return new Schedule(string(body.getInt(at)), LocalDate.ofEpochDay(body.getInt(at + 4)),
+                string(body.getInt(at + 8)), Recurrence.parse(string(body.getInt(at + 12))));
+    }
+
+    private String string(int ref) {
+        String s = strings[ref];
+        if (s == null) {
+            int from = body.getInt(stringOffsetsAt + ref * 4);
+            int to = body.getInt(stringOffsetsAt + (ref + 1) * 4);
+            byte[] b = new byte[to - from];
+            body.get(stringBlobAt + from, b);
+            s = strings[ref] = new String(b, StandardCharsets.UTF_8);
+        }
+        return s;
+    }
+
+    // ------------------- 읽기 -------------------
+
+    /** 스냅샷을 매핑해 연다. 파일이 없거나 형식/체크섬이 맞지 않으면 null. */
+    public static BinarySnapshot open(Path path) {
+        if (!Files.exists(path)) return null;
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_BYTES) return null;
+            ByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) return null;
+            long seq = map.getLong(8);
+            long crc = map.getLong(16);
+            long bodyLength = map.getLong(24);
+            if (bodyLength != size - HEADER_BYTES) return null;
+            ByteBuffer body = map.slice(HEADER_BYTES, (int) bodyLength);
+            CRC32 c = new CRC32();
+            c.update(body.duplicate());
+            if (c.getValue() != crc) return null;
+            return new BinarySnapshot(body, seq);
+        } catch (IOException e) {
+            throw new StorageException("스냅샷 불러오기 실패: " + path.toAbsolutePath(), e);
+        }
+    }
+
+    // ------------------- 쓰기 -------------------
+
+    /** 임시 파일에 쓰고 디스크에 내린 뒤 원자적으로 교체한다. */
+    public static void write(Path path, long seq, Collection<Expense> expenses,
+                             Collection<Project> projects, Collection<Schedule> schedules) {
+        StringTable table = new StringTable();
+        try {
+            ByteArrayOutputStream records = new ByteArrayOutputStream(
+                    expenses.size() * EXPENSE_BYTES + projects.size() * PROJECT_BYTES + schedules.size() * SCHEDULE_BYTES);
+            DataOutputStream out = new DataOutputStream(records);
+            for (Expense e : expenses) {
+                out.writeLong(e.getId());
+                out.writeInt(table.ref(e.getTitle()));
+                out.writeInt(table.ref(e.getStatus()));
+                out.writeInt(e.getPrice());
+                out.writeInt(table.ref(e.getCategory()));
+                out.writeInt(Math.toIntExact(e.getPurchaseDate().toEpochDay()));
+            }
+            for (Project p : projects) {
+                out.writeLong(p.getId());
+                out.writeInt(table.ref(p.getTitle()));
+                out.writeInt(table.ref(p.getStatus()));
+                out.writeInt(table.ref(p.getOwner()));
+                out.writeInt(Math.toIntExact(p.getStartDate().toEpochDay()));
+                out.writeInt(Math.toIntExact(p.getDueDate().toEpochDay()));
+            }
+            for (Schedule s : schedules) {
+                out.writeInt(table.ref(s.getName()));
+                out.writeInt(Math.toIntExact(s.getDate().toEpochDay()));
+                out.writeInt(table.ref(s.getMemo()));
+                out.writeInt(table.ref(s.getRecurrence() == null ? "" : s.getRecurrence().toString()));
+            }
+            out.flush();
+
+            ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream(records.size() + table.blob.size() + 64);
+            DataOutputStream body = new DataOutputStream(bodyBytes);
+            body.writeInt(expenses.size());
+            body.writeInt(projects.size());
+            body.writeInt(schedules.size());
+            body.writeInt(table.offsets.size() - 1);
+            for (int off : table.offsets) body.writeInt(off);
+            table.blob.writeTo(body);
+            records.writeTo(body);
+            body.flush();
+            byte[] b = bodyBytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(b);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC).putInt(VERSION).putLong(seq).putLong(crc.getValue()).putLong(b.length)
+                    .flip();
+
+            Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer[] parts = {header, ByteBuffer.wrap(b)};
+                while (parts[1].hasRemaining()) ch.write(parts);
+                ch.force(true);
+            }
+            try { Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING); }
+            catch (AtomicMoveNotSupportedException e) { Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING); }
+        } catch (IOException e) {
+            throw new StorageException("스냅샷 저장 실패: " + path.toAbsolutePath(), e);
+        }
+    }
+
+    /** 같은 문자열은 한 번만 저장한다(분류/상태/담당자처럼 반복되는 값이 많음). */
+    private static final class StringTable {
+        final Map<String, Integer> refs = new HashMap<>();
+        final List<Integer> offsets = new ArrayList<>(List.of(0));
+        final ByteArrayOutputStream blob = new ByteArrayOutputStream();
+
+        int ref(String s) {
+            String v = s == null ? "" : s;
+            Integer r = refs.get(v);
+            if (r != null) return r;
+            blob.writeBytes(v.getBytes(StandardCharsets.UTF_8));
+            offsets.add(blob.size());
+            refs.put(v, refs.size());
+            return refs.size() - 1;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package util;
+
+import exceptions.AppException;
+import exceptions.StorageException;
+import metrics.Counter;
+import metrics.LatencyTimer;
+import metrics.Metrics;
+import model.Expense;
+import model.Project;
+import model.Schedule;
+import service.DataStore;
+import service.ExpenseService;
+import service.ProjectService;
+import service.ScheduleService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * CSV/TSV 대량 가져오기 (은행 내역, 몇 년치 의뢰 기록 등).
+ * 줄 검사는 DelimitedParser로 청크마다 병렬로 하고, 잘못된 줄은 멈추지 않고 줄 번호와 사유만 모은다.
+ * 통과한 행은 저장소에 잠금 한 번으로 넣는다(색인/집계 갱신은 끝에 한 번에).
+ * 저장은 하지 않으므로 호출한 쪽이 끝난 뒤 한 번 전체 저장한다(PersistenceService.requestSave).
+ *
+ * 건너뛰는 줄은 빈 줄과 header=true일 때의 첫 줄뿐이다. '#'으로 시작하는 행도 데이터로 읽으므로
+ * 모든 줄은 가져오거나 errors에 줄 번호와 함께 남는다(조용히 빠지는 행이 없다).
+ *
+ * 열 순서 (헤더 줄은 header=true로 건너뛴다)
+ *   소비:     제목, 분류, 금액, 구매일(yyyy-MM-dd)
+ *   프로젝트: 제목, 담당자, 시작일, 마감일
+ *   일정:     이름, 날짜, 메모(생략 가능), 반복(생략 가능, 예: WEEKLY, MONTHLY:1:2027-12-31)
+ */
+public class BulkImporter {
+
+    private static final LatencyTimer EXPENSES = Metrics.timer("import.expenses");
+    private static final LatencyTimer PROJECTS = Metrics.timer("import.projects");
+    private static final LatencyTimer SCHEDULES = Metrics.timer("import.schedules");
+    private static final Counter ROWS = Metrics.counter("import.rows");
+    private static final Counter REJECTED = Metrics.counter("import.rejected");
+
+    public enum Format {
+        CSV(',', true), TSV('\t', false);
+
+        final char delimiter;
+        final boolean quoted;
+
+        Format(char delimiter, boolean quoted) { this.delimiter = delimiter; this.quoted = quoted; }
+
+        /** 확장자로 고른다 (.tsv/.tab → TSV, 나머지는 CSV) */
+        public static Format of(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            return name.endsWith(".tsv") || name.endsWith(".tab") ? TSV : CSV;
+        }
+    }
+
+    /** 가져오기 결과. added는 실제로 넣은 항목, errors는 줄 번호순. */
+    public record Report<T>(String kind, List<T> added, List<DelimitedParser.ParseError> errors, int lines) {
+        public int imported() { return added.size(); }
+
+        public String summary() {
+            return kind + " " + imported() + "건 가져옴" + (errors.isEmpty() ? "" : ", 잘못된 줄 " + errors.size() + "개 건너뜀");
+        }
+    }
+
+    private final DataStore store;
+
+    public BulkImporter(DataStore store) { this.store = store; }
+
+    public Report<Expense> importExpenses(InputStream in, Format format, boolean header) {
+        store.awaitLoaded(DataStore.Part.EXPENSES); // 시작 직후 불러오는 중이면 다 읽힌 뒤에 넣는다
+        return EXPENSES.time(() -> {
+            DelimitedParser.Result<Expense> r = parse(in, format, header, 4, f -> validated(() ->
+                    ExpenseService.newExpense(f.text(0).trim(), f.text(1).trim(), f.integer(2), f.date(3))));
+            store.addExpenses(r.rows());
+            return report("소비", r.rows(), r, new ArrayList<>(r.errors()));
+        });
+    }
+
+    public Report<Project> importProjects(InputStream in, Format format, boolean header) {
+        store.awaitLoaded(DataStore.Part.PROJECTS); // 시작 직후 불러오는 중이면 다 읽힌 뒤에 넣는다
+        return PROJECTS.time(() -> {
+            DelimitedParser.Result<Project> r = parse(in, format, header, 4, f -> validated(() ->
+                    ProjectService.newProject(f.text(0).trim(), f.text(1).trim(), f.date(2), f.date(3))));
+            store.addProjects(r.rows());
+            return report("프로젝트", r.rows(), r, new ArrayList<>(r.errors()));
+        });
+    }
+
+    /** 이미 있는 이름(파일 안에서 앞에 나온 이름 포함)은 그 줄의 오류로 남기고 건너뛴다. */
+    public Report<Schedule> importSchedules(InputStream in, Format format, boolean header) {
+        store.awaitLoaded(DataStore.Part.SCHEDULES); // 시작 직후 불러오는 중이면 다 읽힌 뒤에 넣는다
+        return SCHEDULES.time(() -> {
+            DelimitedParser.Result<Schedule> r = parse(in, format, header, 2, f -> validated(() ->
+                    ScheduleService.newSchedule(f.text(0).trim(), f.date(1), f.count() > 2 ? f.text(2) : "",
+                            f.count() > 3 ? ScheduleService.parseRecurrence(f.text(3)) : null)));
+            BitSet skipped = store.putSchedulesIfAbsent(r.rows());
+            List<DelimitedParser.ParseError> errors = new ArrayList<>(r.errors());
+            List<Schedule> added = new ArrayList<>(r.rows().size() - skipped.cardinality());
+            for (int i = 0; i < r.rows().size(); i++) {
+                if (!skipped.get(i)) added.add(r.rows().get(i));
+                else errors.add(new DelimitedParser.ParseError(r.rowLines()[i], "중복된 일정 키입니다: " + r.rows().get(i).getName()));
+            }
+            errors.sort(Comparator.comparingInt(DelimitedParser.ParseError::line));
+            return report("일정", added, r, errors);
+        });
+    }
+
+    private static <T> Report<T> report(String kind, List<T> added, DelimitedParser.Result<?> r,
+                                        List<DelimitedParser.ParseError> errors) {
+        ROWS.add(added.size());
+        REJECTED.add(errors.size());
+        return new Report<>(kind, Collections.unmodifiableList(added), List.copyOf(errors), r.lines());
+    }
+
+    /** 서비스 검사 오류를 줄 오류로 바꾼다. */
+    private static <T> T validated(Supplier<T> make) {
+        try { return make.get(); }
+        catch (AppException e) { throw new IllegalArgumentException(e.getMessage()); }
+    }
+
+    /** 헤더 줄을 건너뛰어도 줄 번호는 파일 기준이다. */
+    private static <T> DelimitedParser.Result<T> parse(InputStream in, Format format, boolean header,
+                                                       int minFields, DelimitedParser.RowMapper<T> mapper) {
+        byte[] data;
+        try { data = in.readAllBytes(); }
+        catch (IOException e) { throw new StorageException("가져올 파일 읽기 실패", e); }
+        return header
+                ? DelimitedParser.parseAfterFirstLine(data, format.delimiter, format.quoted, minFields, mapper)
+                : DelimitedParser.parse(data, 0, format.delimiter, format.quoted, minFields, mapper);
+    }
+}
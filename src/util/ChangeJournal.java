@@ -0,0 +1,156 @@
+package util;
+
+import exceptions.StorageException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 변경 1건당 한 줄을 덧붙이는 append-only 저널.
+ * 한 줄 형식: seq|op|필드...|#crc32(hex)
+ * 마지막 줄이 중간에 잘렸거나 CRC가 맞지 않으면 그 지점부터 버린다.
+ */
+public class ChangeJournal implements AutoCloseable {
+
+    private static final String JOIN_SEP = "|";
+    private static final String CRC_MARK = "|#";
+
+    private final Path path;
+    private FileChannel channel;
+    private long nextSeq = 1;
+    private int records;
+
+    public ChangeJournal(Path path) {
+        this.path = path;
+    }
+
+    public long nextSeq() { return nextSeq; }
+    public int size() { return records; }
+
+    /** 저장 파일에 이미 반영된 최대 seq를 알려 준다. 다음 기록은 그 뒤 번호부터 쓴다. */
+    public void observeSeq(long seq) {
+        if (seq >= nextSeq) nextSeq = seq + 1;
+    }
+
+    /** 기록들을 한 번의 쓰기로 덧붙이고 디스크까지 한 번만 내린다. 마지막 seq를 돌려준다. */
+    public long appendAll(List<Change> changes) {
+        StringBuilder lines = new StringBuilder();
+        for (Change c : changes) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(nextSeq++).append(JOIN_SEP).append(c.op());
+            for (String f : c.fields()) sb.append(JOIN_SEP).append(f == null ? "" : f);
+            String body = sb.toString();
+            lines.append(body).append(CRC_MARK).append(Long.toHexString(crc(body))).append('\n');
+        }
+        try {
+            FileChannel ch = channel();
+            ByteBuffer buf = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(false);
+        } catch (IOException e) {
+            throw new StorageException("저널 기록 실패: " + path.toAbsolutePath(), e);
+        }
+        records += changes.size();
+        return nextSeq - 1;
+    }
+
+    /** 유효한 기록을 순서대로 읽어 온다. 깨진 꼬리는 잘라 낸다. */
+    public List<Entry> readAll() {
+        List<Entry> out = new ArrayList<>();
+        records = 0;
+        if (!Files.exists(path)) return out;
+        long validBytes = 0;
+        boolean torn = false;
+        try (BufferedReader br = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                Entry e = parse(line);
+                if (e == null) { torn = true; break; }
+                out.add(e);
+                observeSeq(e.seq());
+                validBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        } catch (IOException e) {
+            throw new StorageException("저널 불러오기 실패: " + path.toAbsolutePath(), e);
+        }
+        if (torn || validBytes != sizeOnDisk()) truncate(validBytes);
+        records = out.size();
+        return out;
+    }
+
+    /** 압축(베이스 파일 재작성)이 끝난 뒤 저널을 비운다. */
+    public void reset() {
+        truncate(0);
+        records = 0;
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) return;
+        try { channel.close(); }
+        catch (IOException e) { throw new StorageException("저널 닫기 실패", e); }
+        finally { channel = null; }
+    }
+
+    private Entry parse(String line) {
+        int mark = line.lastIndexOf(CRC_MARK);
+        if (mark < 0) return null;
+        String body = line.substring(0, mark);
+        long stored;
+        try { stored = Long.parseLong(line.substring(mark + CRC_MARK.length()), 16); }
+        catch (NumberFormatException e) { return null; }
+        if (stored != crc(body)) return null;
+        String[] a = body.split("\\|", -1);
+        if (a.length < 2) return null;
+        try {
+            String[] fields = new String[a.length - 2];
+            System.arraycopy(a, 2, fields, 0, fields.length);
+            return new Entry(Long.parseLong(a[0]), a[1], fields);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+
+    private long sizeOnDisk() {
+        try { return Files.size(path); }
+        catch (IOException e) { throw new StorageException("저널 크기 확인 실패", e); }
+    }
+
+    private void truncate(long size) {
+        try {
+            if (!Files.exists(path)) return;
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                ch.truncate(size);
+                ch.force(true);
+            }
+        } catch (IOException e) {
+            throw new StorageException("저널 정리 실패: " + path.toAbsolutePath(), e);
+        }
+    }
+
+    private static long crc(String body) {
+        CRC32 c = new CRC32();
+        c.update(body.getBytes(StandardCharsets.UTF_8));
+        return c.getValue();
+    }
+
+    /** 아직 seq가 붙지 않은 변경 1건 */
+    public record Change(String op, String... fields) {}
+
+    public record Entry(long seq, String op, String[] fields) {}
+}
@@ -0,0 +1,271 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 구분자 텍스트(UTF-8) 바이트 단위 파서.
+ * 파일을 줄바꿈 경계에 맞춘 청크로 나눠 fork-join 풀에서 병렬로 파싱하고,
+ * 잘못된 줄은 버리는 대신 줄 번호와 사유를 모아 돌려준다.
+ * 빈 줄만 건너뛴다. '#'으로 시작하는 줄도 데이터다(헤더 줄은 parseAfterFirstLine으로 뺀다).
+ * quoted면 "..." 필드 안의 구분자와 "" (따옴표 하나)를 값으로 읽는다(CSV). 필드 안 줄바꿈은 지원하지 않는다.
+ */
+public final class DelimitedParser {
+
+    private static final int CHUNK_BYTES = 1 << 20;      // 청크 크기 목표 (1MB)
+    private static final int PARALLEL_THRESHOLD = 1 << 18; // 이보다 작으면 한 스레드로
+
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        /** 한 줄을 객체로 바꾼다. 값이 잘못됐으면 IllegalArgumentException/DateTimeException을 던진다. */
+        T map(Fields f);
+    }
+
+    public record ParseError(int line, String message) {
+        @Override public String toString() { return line + "행: " + message; }
+    }
+
+    /** rowLines[i]: rows.get(i)가 나온 줄 번호 (1부터) */
+    public record Result<T>(List<T> rows, List<ParseError> errors, int lines, int[] rowLines) {}
+
+    private DelimitedParser() {}
+
+    public static <T> Result<T> parse(byte[] data, char delimiter, int minFields, RowMapper<T> mapper) {
+        return parse(data, 0, delimiter, false, minFields, mapper);
+    }
+
+    /** offset 바이트부터 읽는다(헤더 줄을 건너뛸 때 등). 줄 번호는 offset 위치를 1행으로 센다. */
+    public static <T> Result<T> parse(byte[] data, int offset, char delimiter, boolean quoted,
+                                      int minFields, RowMapper<T> mapper) {
+        int start = offset == 0 && hasBom(data) ? 3 : offset;
+        if (data.length - start < PARALLEL_THRESHOLD)
+            return new Chunk<>(data, start, data.length, (byte) delimiter, quoted, minFields, mapper).compute();
+
+        List<int[]> ranges = new ArrayList<>();
+        for (int from = start; from < data.length; ) {
+            int to = Math.min(from + CHUNK_BYTES, data.length);
+            while (to < data.length && data[to - 1] != '\n') to++; // 줄 끝까지 늘린다
+            ranges.add(new int[]{from, to});
+            from = to;
+        }
+        List<Chunk<T>> tasks = new ArrayList<>(ranges.size());
+        for (int[] r : ranges) tasks.add(new Chunk<>(data, r[0], r[1], (byte) delimiter, quoted, minFields, mapper));
+        ForkJoinPool.commonPool().invoke(new RecursiveTask<Void>() {
+            @Override protected Void compute() { invokeAll(tasks); return null; }
+        });
+
+        // 청크 순서대로 이어 붙이고, 청크 안의 줄 번호를 파일 기준으로 보정한다
+        List<T> rows = new ArrayList<>();
+        List<ParseError> errors = new ArrayList<>();
+        int total = 0;
+        for (Chunk<T> c : tasks) total += c.join().rows().size();
+        int[] rowLines = new int[total];
+        int lineBase = 0;
+        for (Chunk<T> c : tasks) {
+            Result<T> r = c.join();
+            for (int i = 0; i < r.rows().size(); i++) rowLines[rows.size() + i] = lineBase + r.rowLines()[i];
+            rows.addAll(r.rows());
+            for (ParseError e : r.errors()) errors.add(new ParseError(lineBase + e.line(), e.message()));
+            lineBase += r.lines();
+        }
+        return new Result<>(rows, errors, lineBase, rowLines);
+    }
+
+    /** 첫 줄(헤더)을 빼고 읽는다. 줄 번호와 rowLines는 헤더를 1행으로 센 파일 기준이다. */
+    public static <T> Result<T> parseAfterFirstLine(byte[] data, char delimiter, boolean quoted,
+                                                    int minFields, RowMapper<T> mapper) {
+        int from = hasBom(data) ? 3 : 0;
+        while (from < data.length && data[from] != '\n') from++;
+        from = Math.min(from + 1, data.length);
+        Result<T> r = parse(data, from, delimiter, quoted, minFields, mapper);
+        List<ParseError> errors = new ArrayList<>(r.errors().size());
+        for (ParseError e : r.errors()) errors.add(new ParseError(e.line() + 1, e.message()));
+        int[] lines = r.rowLines();
+        for (int i = 0; i < r.rows().size(); i++) lines[i]++;
+        return new Result<>(r.rows(), errors, r.lines() + 1, lines);
+    }
+
+    private static boolean hasBom(byte[] d) {
+        return d.length >= 3 && (d[0] & 0xFF) == 0xEF && (d[1] & 0xFF) == 0xBB && (d[2] & 0xFF) == 0xBF;
+    }
+
+    /** 현재 줄의 필드 위치. 청크마다 하나를 재사용한다. */
+    public static final class Fields {
+        private final byte[] data;
+        private int[] starts = new int[8], ends = new int[8];
+        private long escaped; // "" 가 들어 있는 따옴표 필드 (앞 64개까지)
+        private int count;
+
+        Fields(byte[] data) { this.data = data; }
+
+        public int count() { return count; }
+
+        public String text(int i) {
+            check(i);
+            String s = new String(data, starts[i], ends[i] - starts[i], StandardCharsets.UTF_8);
+            return i < 64 && (escaped & (1L << i)) != 0 ? s.replace("\"\"", "\"") : s;
+        }
+
+        public int integer(int i) {
+            check(i);
+            int p = starts[i], end = ends[i];
+            boolean neg = p < end && data[p] == '-';
+            if (neg) p++;
+            if (p == end) throw new IllegalArgumentException((i + 1) + "번째 필드: 숫자가 비었습니다");
+            long v = 0;
+            for (; p < end; p++) {
+                int d = data[p] - '0';
+                if (d < 0 || d > 9) throw new IllegalArgumentException((i + 1) + "번째 필드: 숫자 형식 오류 '" + text(i) + "'");
+                v = v * 10 + d;
+                if (v > Integer.MAX_VALUE + 1L) throw new IllegalArgumentException((i + 1) + "번째 필드: 숫자 범위 초과");
+            }
+            v = neg ? -v : v;
+            if (v > Integer.MAX_VALUE) throw new IllegalArgumentException((i + 1) + "번째 필드: 숫자 범위 초과");
+            return (int) v;
+        }
+
+        /** yyyy-MM-dd */
+        public LocalDate date(int i) {
+            check(i);
+            int p = starts[i];
+            if (ends[i] - p != 10 || data[p + 4] != '-' || data[p + 7] != '-')
+                throw new IllegalArgumentException((i + 1) + "번째 필드: 날짜 형식 오류 '" + text(i) + "'");
+            try {
+                return LocalDate.of(digits(p, 4, i), digits(p + 5, 2, i), digits(p + 8, 2, i));
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException((i + 1) + "번째 필드: 없는 날짜 '" + text(i) + "'");
+            }
+        }
+
+        private int digits(int p, int n, int field) {
+            int v = 0;
+            for (int k = 0; k < n; k++) {
+                int d = data[p + k] - '0';
+                if (d < 0 || d > 9) throw new IllegalArgumentException((field + 1) + "번째 필드: 날짜 형식 오류 '" + text(field) + "'");
+                v = v * 10 + d;
+            }
+            return v;
+        }
+
+        private void check(int i) {
+            if (i < 0 || i >= count) throw new IllegalArgumentException((i + 1) + "번째 필드가 없습니다");
+        }
+
+        void reset() { count = 0; escaped = 0; }
+
+        void addEscaped(int start, int end) {
+            if (count < 64) escaped |= 1L << count;
+            add(start, end);
+        }
+
+        void add(int start, int end) {
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            starts[count] = start;
+            ends[count] = end;
+            count++;
+        }
+    }
+
+    private static final class Chunk<T> extends RecursiveTask<Result<T>> {
+        private final byte[] data;
+        private final int from, to;
+        private final byte delimiter;
+        private final boolean quoted;
+        private final int minFields;
+        private final RowMapper<T> mapper;
+
+        Chunk(byte[] data, int from, int to, byte delimiter, boolean quoted, int minFields, RowMapper<T> mapper) {
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.delimiter = delimiter;
+            this.quoted = quoted;
+            this.minFields = minFields;
+            this.mapper = mapper;
+        }
+
+        @Override
+        protected Result<T> compute() {
+            List<T> rows = new ArrayList<>();
+            List<ParseError> errors = new ArrayList<>();
+            int[] rowLines = new int[64];
+            Fields f = new Fields(data);
+            int line = 0;
+            int p = from;
+            while (p < to) {
+                int eol = p;
+                while (eol < to && data[eol] != '\n') eol++;
+                int end = (eol > p && data[eol - 1] == '\r') ? eol - 1 : eol;
+                line++;
+                if (end > p && !blank(p, end)) {
+                    f.reset();
+                    try {
+                        if (quoted) splitQuoted(f, p, end);
+                        else split(f, p, end);
+                        if (f.count() < minFields)
+                            throw new IllegalArgumentException("필드 수 부족 (" + f.count() + "/" + minFields + ")");
+                        T row = mapper.map(f);
+                        if (rows.size() == rowLines.length) rowLines = Arrays.copyOf(rowLines, rowLines.length * 2);
+                        rowLines[rows.size()] = line;
+                        rows.add(row);
+                    } catch (IllegalArgumentException | DateTimeException e) {
+                        errors.add(new ParseError(line, e.getMessage()));
+                    }
+                }
+                p = eol + 1;
+            }
+            return new Result<>(rows, errors, line, rowLines);
+        }
+
+        private void split(Fields f, int p, int end) {
+            int fs = p;
+            for (int i = p; i < end; i++) {
+                if (data[i] == delimiter) { f.add(fs, i); fs = i + 1; }
+            }
+            f.add(fs, end);
+        }
+
+        private void splitQuoted(Fields f, int p, int end) {
+            int i = p;
+            while (true) {
+                if (i < end && data[i] == '"') {
+                    boolean esc = false;
+                    int close = -1;
+                    for (int k = i + 1; k < end; k++) {
+                        if (data[k] != '"') continue;
+                        if (k + 1 < end && data[k + 1] == '"') { esc = true; k++; }
+                        else { close = k; break; }
+                    }
+                    if (close < 0) throw new IllegalArgumentException((f.count() + 1) + "번째 필드: 따옴표가 닫히지 않았습니다");
+                    if (esc) f.addEscaped(i + 1, close);
+                    else f.add(i + 1, close);
+                    i = close + 1;
+                    if (i < end && data[i] != delimiter)
+                        throw new IllegalArgumentException((f.count()) + "번째 필드: 닫는 따옴표 뒤에 구분자가 없습니다");
+                } else {
+                    int d = i;
+                    while (d < end && data[d] != delimiter) d++;
+                    f.add(i, d);
+                    i = d;
+                }
+                if (i >= end) return;
+                i++; // 구분자
+                if (i == end) { f.add(end, end); return; } // 줄 끝의 빈 필드
+            }
+        }
+
+        private boolean blank(int p, int end) {
+            for (int i = p; i < end; i++) if (data[i] != ' ' && data[i] != '\t') return false;
+            return true;
+        }
+    }
+}
@@ -1,130 +1,542 @@
 package util;
 
+import exceptions.NotFoundException;
 import exceptions.StorageException;
+import metrics.Counter;
+import metrics.LatencyTimer;
+import metrics.Metrics;
 import model.Expense;
 import model.Project;
+import model.Recurrence;
 import model.Schedule;
+import model.Work;
 import service.DataStore;
+import service.StoreSnapshot;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDate;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 public class FileManager {
 
     private static final String DATA_DIR       = "data";
-    private static final String EXPENSE_FILE   = DATA_DIR + "/expenses.txt";
-    private static final String PROJECT_FILE   = DATA_DIR + "/projects.txt";
-    private static final String SCHEDULE_FILE  = DATA_DIR + "/schedules.txt";
-    private static final String SEP            = "\\|"; // split용
-    private static final String JOIN_SEP       = "|";   // write용
+    private static final String EXPENSE_FILE   = "expenses.txt";   // 예전 형식 (조각으로 옮긴 뒤 지운다)
+    private static final String EXPENSE_DIR    = "expenses";       // 구매월 조각: YYYY-MM_세대.txt
+    private static final String MANIFEST_FILE  = "manifest.txt";   // 조각 목록: 월|건수|합계|세대|최대id
+    private static final String PROJECT_FILE   = "projects.txt";
+    private static final String SCHEDULE_FILE  = "schedules.txt";
+    private static final String JOURNAL_FILE   = "journal.log";
+    private static final String SNAPSHOT_FILE  = "snapshot.bin";
+    private static final String JOIN_SEP       = "|";   // 필드 구분자
+    private static final String SEQ_HEADER     = "#seq=";
+
+    // 저널 op 코드 (첫 글자가 대상 파일). ER/PS는 번호 기준인 예전 기록으로, 읽기만 한다.
+    private static final String OP_EXPENSE_ADD    = "EA";
+    private static final String OP_EXPENSE_REMOVE = "ER";
+    private static final String OP_EXPENSE_DELETE = "ED"; // id 기준
+    private static final String OP_PROJECT_ADD    = "PA";
+    private static final String OP_PROJECT_STATUS = "PS";
+    private static final String OP_PROJECT_UPDATE = "PU"; // id 기준 상태 변경
+    private static final String OP_SCHEDULE_PUT   = "SA";
+    private static final String OP_SCHEDULE_DEL   = "SR";
+
+    private static final LatencyTimer LOAD = Metrics.timer("file.load");
+    private static final LatencyTimer SAVE = Metrics.timer("file.save");
+    private static final LatencyTimer CAPTURE = Metrics.timer("file.capture");
+    private static final LatencyTimer APPEND = Metrics.timer("file.journal.append");
+    private static final LatencyTimer SHARD_LOAD = Metrics.timer("file.shard.load");
+    private static final Counter SHARDS_WRITTEN = Metrics.counter("file.shard.written");
+    private static final Counter JOURNAL_RECORDS = Metrics.counter("file.journal.records");
+    private static final Counter LOAD_WARNINGS = Metrics.counter("file.load.warnings");
 
     private final DataStore store;
+    private final Path dataDir;
+    private final ChangeJournal journal;
+
+    // 조각은 불러온 뒤에도 필요할 때 다른 스레드에서 읽으므로 경고 목록도 동기화한다
+    private final List<String> loadWarnings = Collections.synchronizedList(new ArrayList<>());
+
+    // 조각 파일 세대: 저장 때 바뀐 달만 새 세대 이름으로 쓰고 목록 파일을 바꿔 끼우는 것이 반영 시점이다
+    private final Map<YearMonth, Long> shardGens = new ConcurrentHashMap<>();
+    private long shardGen;
+
+    // 각 베이스 파일에 반영된 마지막 저널 seq
+    private long expenseSeq, projectSeq, scheduleSeq;
+
+    // 불러온 것 중 id가 없던 항목이 있었는지 (예전 형식 → 불러온 뒤 바로 id를 붙여 저장)
+    private volatile boolean idsMissing;
 
     public FileManager(DataStore store) {
+        this(store, Paths.get(DATA_DIR));
+    }
+
+    /** 다른 데이터 디렉터리를 쓸 때 (벤치마크, 테스트 데이터 등) */
+    public FileManager(DataStore store, Path dataDir) {
         this.store = store;
+        this.dataDir = dataDir;
+        this.journal = new ChangeJournal(dataDir.resolve(JOURNAL_FILE));
+    }
+
+    /** 마지막 loadAll()에서 건너뛴 잘못된 줄들 ("파일 N행: 사유") */
+    public List<String> getLoadWarnings() {
+        synchronized (loadWarnings) { return List.copyOf(loadWarnings); }
     }
 
     public void loadAll() {
+        LOAD.run(this::load);
+        LOAD_WARNINGS.add(loadWarnings.size());
+    }
+
+    /**
+     * 프로젝트 → 일정 → 소비 순서로 읽고, 부분마다 저널까지 반영되면 store.markLoaded()로 알린다.
+     * 화면은 먼저 뜬 부분부터 쓸 수 있다(소비 내역이 아무리 많아도 프로젝트/일정은 기다리지 않음).
+     */
+    private void load() {
         ensureDataDir();
-        loadExpenses();
-        loadProjects();
-        loadSchedules();
+        loadWarnings.clear();
+        idsMissing = false;
+        store.beginBulkLoad(); // 리포트 집계는 부분마다 다 읽은 뒤 한 번만 계산
+        try {
+            // 조각 목록이 없으면 예전 형식: 예전 순서 그대로 한 목록에 모아 저널까지 반영한 뒤 넣는다
+            List<Expense> legacy = attachExpenseShards() ? null : new ArrayList<>();
+            boolean fromText = !loadSnapshot(legacy); // 스냅샷이 없거나 텍스트 파일이 더 새로우면(직접 고친 경우 등) 텍스트에서
+            if (fromText) loadProjects();
+            List<ChangeJournal.Entry> entries = journal.readAll();
+            replayJournal(entries, 'P', null);
+            store.markLoaded(DataStore.Part.PROJECTS);
+
+            if (fromText) loadSchedules();
+            replayJournal(entries, 'S', null);
+            store.markLoaded(DataStore.Part.SCHEDULES);
+
+            if (fromText && legacy != null) loadExpenses(legacy);
+            replayJournal(entries, 'E', legacy);
+            if (legacy != null) {
+                store.clearExpenses();
+                store.addExpenses(legacy);
+                // 저장소는 구매월 순서라 번호가 예전과 다르므로, 저널이 섞이지 않게 바로 조각으로 옮겨 저장한다
+                if (!legacy.isEmpty()) {
+                    writeFiles(image());
+                    System.out.println("📦 소비 내역 " + legacy.size() + "건을 구매월 조각 파일로 옮김");
+                }
+            } else if (idsMissing) {
+                // id 없이 저장된 항목은 불러올 때마다 id가 달라질 수 있으므로, 모두 읽어 id를 붙이고 바로 저장한다
+                store.loadAllExpenseMonths();
+                writeFiles(image());
+                System.out.println("🔖 id가 없던 항목에 id를 붙여 저장함");
+            }
+            store.markLoaded(DataStore.Part.EXPENSES);
+        } finally {
+            store.endBulkLoad();
+        }
     }
 
+    /**
+     * 전체 재작성(압축). 텍스트 베이스 파일과 바이너리 스냅샷을 원자적으로 교체한 뒤 저널을 비운다.
+     * 소비 내역은 바뀐 구매월 조각만 다시 쓴다. 스냅샷을 마지막에 써서, 중간에 멈추면 더 새로운 텍스트 파일 쪽이 읽히도록 한다.
+     */
     public void saveAll() {
-        ensureDataDir();
-        saveExpenses();
-        saveProjects();
-        saveSchedules();
+        write(capture());
+    }
+
+    /**
+     * 저장할 내용을 떠 둔다(저장소를 O(1)에 고정한 판이라 쓰는 동안 데이터를 고쳐도 섞이지 않는다).
+     * 저널 순서와 맞도록 데이터를 고치는 스레드에서 호출한다.
+     * 실제 쓰기는 write()로 다른 스레드에서 해도 된다.
+     */
+    public Image capture() {
+        store.awaitLoaded(DataStore.Part.values()); // 불러오는 도중이면 반쯤 읽힌 데이터를 저장하지 않게 기다린다
+        return CAPTURE.time(this::image);
+    }
+
+    private Image image() {
+        StoreSnapshot snap = store.snapshot();
+        return new Image(snap.expenseShards(), snap.projects(), snap.schedules());
+    }
+
+    /** capture() 이전 변경이 모두 저널에 들어간 뒤 호출한다(실패해도 그 변경은 저널에서 다시 읽힌다). */
+    public void write(Image image) {
+        SAVE.run(() -> writeFiles(image));
         System.out.println("💾 저장 완료");
     }
 
+    private void writeFiles(Image image) {
+        ensureDataDir();
+        long seq = journal.nextSeq() - 1;
+        saveExpenseShards(seq, image.expenses());
+        saveProjects(seq, image.projects());
+        saveSchedules(seq, image.schedules());
+        BinarySnapshot.write(dataDir.resolve(SNAPSHOT_FILE), seq,
+                List.of(), image.projects(), image.schedules()); // 소비 내역은 조각 파일에만
+        expenseSeq = projectSeq = scheduleSeq = seq;
+        journal.reset();
+        store.expenseShardsSaved(image.expenses().stamps());
+    }
+
+    /** 저장 시점의 데이터 (소비 내역은 달별 요약과 바뀐 달의 행만) */
+    public record Image(DataStore.ExpenseShardImage expenses, List<Project> projects, List<Schedule> schedules) {}
+
+    // ------------------- 변경 1건 기록 -------------------
+    // 추가 기록은 저장소에 넣은 뒤(id가 정해진 뒤) 만든다. 다시 반영할 때 같은 id로 들어간다.
+    public static ChangeJournal.Change expenseAdded(Expense e) {
+        return new ChangeJournal.Change(OP_EXPENSE_ADD, nz(e.getTitle()), nz(e.getStatus()),
+                String.valueOf(e.getPrice()), nz(e.getCategory()), e.getPurchaseDate().toString(), String.valueOf(e.getId()));
+    }
+
+    public static ChangeJournal.Change expenseRemoved(long id) {
+        return new ChangeJournal.Change(OP_EXPENSE_DELETE, String.valueOf(id));
+    }
+
+    public static ChangeJournal.Change projectAdded(Project prj) {
+        return new ChangeJournal.Change(OP_PROJECT_ADD, nz(prj.getTitle()), nz(prj.getStatus()), nz(prj.getOwner()),
+                prj.getStartDate().toString(), prj.getDueDate().toString(), String.valueOf(prj.getId()));
+    }
+
+    public static ChangeJournal.Change projectStatus(long id, String newStatus) {
+        return new ChangeJournal.Change(OP_PROJECT_UPDATE, String.valueOf(id), nz(newStatus));
+    }
+
+    public static ChangeJournal.Change schedulePut(Schedule s) {
+        return new ChangeJournal.Change(OP_SCHEDULE_PUT, nz(s.getName()), s.getDate().toString(), nz(s.getMemo()), rule(s));
+    }
+
+    public static ChangeJournal.Change scheduleRemoved(String key) {
+        return new ChangeJournal.Change(OP_SCHEDULE_DEL, nz(key));
+    }
+
+    /** 변경들을 저널에 한 번에 덧붙인다(fsync 1회). */
+    public void append(List<ChangeJournal.Change> changes) {
+        if (changes.isEmpty()) return;
+        ensureDataDir();
+        APPEND.run(() -> journal.appendAll(changes));
+        JOURNAL_RECORDS.add(changes.size());
+    }
+
+    /** 저널에 쌓인 기록 수 (압축 시점 판단용) */
+    public int journalSize() { return journal.size(); }
+
+    public void closeJournal() { journal.close(); }
+
     private void ensureDataDir() {
-        try { Files.createDirectories(Paths.get(DATA_DIR)); }
+        try { Files.createDirectories(dataDir); }
         catch (IOException e) { throw new StorageException("data 디렉터리 생성 실패", e); }
     }
 
-    /* ================= EXPENSES ================= */
-    private void loadExpenses() {
-        store.getExpenses().clear();
-        Path p = Paths.get(EXPENSE_FILE);
-        if (!Files.exists(p)) return;
-        try (BufferedReader br = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank()) continue;
-                String[] a = line.split(SEP, -1); // -1: 공백 필드 유지
-                if (a.length < 5) continue;
-                try {
-                    store.getExpenses().add(new Expense(
-                            a[0], a[1], Integer.parseInt(a[2]), a[3], LocalDate.parse(a[4])
-                    ));
-                } catch (Exception ignore) {}
+    /* ================= SNAPSHOT ================= */
+    /** legacy가 null이 아니면(예전 형식) 스냅샷의 소비 내역을 거기에 담는다. 조각을 쓰면 스냅샷의 소비 내역은 무시한다. */
+    private boolean loadSnapshot(List<Expense> legacy) {
+        Path snap = dataDir.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snap)) return false;
+        try {
+            FileTime snapTime = Files.getLastModifiedTime(snap);
+            for (String f : new String[]{EXPENSE_FILE, PROJECT_FILE, SCHEDULE_FILE}) {
+                Path p = dataDir.resolve(f);
+                if (Files.exists(p) && Files.getLastModifiedTime(p).compareTo(snapTime) > 0) return false;
             }
         } catch (IOException e) {
-            throw new StorageException("소비 내역 불러오기 실패", e);
+            return false;
+        }
+        BinarySnapshot s = BinarySnapshot.open(snap);
+        if (s == null) return false; // 손상/구버전 → 텍스트로 복구
+
+        store.clearProjects();
+        store.clearSchedules();
+        if (legacy != null) for (int i = 0; i < s.expenseCount(); i++) legacy.add(s.expense(i));
+        for (int i = 0; i < s.projectCount(); i++) store.addProject(s.project(i));
+        for (int i = 0; i < s.scheduleCount(); i++) {
+            Schedule sc = s.schedule(i);
+            store.putSchedule(sc.getName(), sc);
+        }
+        if (legacy != null) expenseSeq = s.seq();
+        projectSeq = scheduleSeq = s.seq();
+        journal.observeSeq(s.seq());
+        return true;
+    }
+
+    /* ================= JOURNAL ================= */
+    /**
+     * 대상 파일(op 첫 글자)이 target인 기록만 반영한다.
+     * 소비 기록은 legacy가 있으면(예전 형식) 그 목록에, 없으면 저장소에 반영한다. 번호는 같은 순서 기준이다.
+     * 이미 없어진 항목(NotFoundException)은 조용히 건너뛰고, 그 밖에 반영하지 못한 기록은 번호와 op를 경고로 남긴다.
+     */
+    private void replayJournal(List<ChangeJournal.Entry> entries, char target, List<Expense> legacy) {
+        int failed = 0;
+        for (ChangeJournal.Entry ent : entries) {
+            if (ent.op().charAt(0) != target) continue;
+            String[] a = ent.fields();
+            long fileSeq = switch (ent.op().charAt(0)) {
+                case 'E' -> expenseSeq;
+                case 'P' -> projectSeq;
+                default  -> scheduleSeq;
+            };
+            if (ent.seq() <= fileSeq) continue; // 압축 도중 중단된 경우 이미 반영된 기록
+            try {
+                switch (ent.op()) {
+                    case OP_EXPENSE_ADD -> {
+                        Expense e = new Expense(a[0], a[1], Integer.parseInt(a[2]), a[3], LocalDate.parse(a[4]));
+                        readId(e, a, 5);
+                        if (legacy != null) legacy.add(e);
+                        else store.addExpense(e);
+                    }
+                    case OP_EXPENSE_REMOVE -> {
+                        if (legacy != null) legacy.remove(Integer.parseInt(a[0]));
+                        else store.removeExpense(Integer.parseInt(a[0]));
+                    }
+                    case OP_EXPENSE_DELETE -> {
+                        long id = Long.parseLong(a[0]);
+                        if (legacy != null) legacy.removeIf(e -> e.getId() == id);
+                        else store.removeExpenseById(id);
+                    }
+                    case OP_PROJECT_ADD -> {
+                        Project prj = new Project(a[0], a[1], a[2], LocalDate.parse(a[3]), LocalDate.parse(a[4]));
+                        readId(prj, a, 5);
+                        store.addProject(prj);
+                    }
+                    case OP_PROJECT_STATUS -> store.changeProjectStatusById(store.getProject(Integer.parseInt(a[0])).getId(), a[1]);
+                    case OP_PROJECT_UPDATE -> store.changeProjectStatusById(Long.parseLong(a[0]), a[1]);
+                    case OP_SCHEDULE_PUT -> store.putSchedule(a[0], new Schedule(a[0], LocalDate.parse(a[1]), a[2],
+                            a.length > 3 ? Recurrence.parse(a[3]) : null));
+                    case OP_SCHEDULE_DEL -> store.removeSchedule(a[0]);
+                    default -> throw new IllegalArgumentException("알 수 없는 기록");
+                }
+            } catch (NotFoundException ignore) { // 이미 없어진 항목
+            } catch (RuntimeException e) {
+                failed++;
+                String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                loadWarnings.add(JOURNAL_FILE + " #" + ent.seq() + " " + ent.op() + ": " + reason);
+            }
         }
+        if (failed > 0) System.out.println("⚠️ " + JOURNAL_FILE + ": 반영하지 못한 기록 " + failed + "개를 건너뜀");
+    }
+
+    /** 저널 기록의 at번째 필드에 id가 있으면 붙인다. 없으면(예전 기록) 저장소가 새로 주고, 불러온 뒤 바로 저장하게 표시한다. */
+    private void readId(Work w, String[] a, int at) {
+        if (a.length > at && !a[at].isEmpty()) w.setId(Long.parseLong(a[at]));
+        else idsMissing = true;
+    }
+
+    /* ================= TEXT PARSING ================= */
+    private byte[] readBytes(Path p, String failMessage) {
+        if (!Files.exists(p)) return new byte[0];
+        try { return Files.readAllBytes(p); }
+        catch (IOException e) { throw new StorageException(failMessage, e); }
+    }
+
+    /** 첫 줄의 '#seq=N' 헤더 값 (없으면 0) */
+    private long seqHeader(byte[] data) {
+        if (!hasSeqHeader(data)) return 0;
+        byte[] h = SEQ_HEADER.getBytes(StandardCharsets.US_ASCII);
+        long v = 0;
+        for (int i = h.length; i < data.length && data[i] >= '0' && data[i] <= '9'; i++) v = v * 10 + (data[i] - '0');
+        journal.observeSeq(v);
+        return v;
+    }
+
+    private static boolean hasSeqHeader(byte[] data) {
+        byte[] h = SEQ_HEADER.getBytes(StandardCharsets.US_ASCII);
+        if (data.length < h.length) return false;
+        for (int i = 0; i < h.length; i++) if (data[i] != h[i]) return false;
+        return true;
+    }
+
+    /** 병렬 파싱 후 잘못된 줄은 경고로 모아 둔다. 첫 줄의 '#seq=' 헤더만 빼고 '#'으로 시작하는 줄도 데이터로 읽는다. */
+    private <T> List<T> parseRows(String file, byte[] data, int minFields, DelimitedParser.RowMapper<T> mapper) {
+        DelimitedParser.Result<T> r = hasSeqHeader(data)
+                ? DelimitedParser.parseAfterFirstLine(data, JOIN_SEP.charAt(0), false, minFields, mapper)
+                : DelimitedParser.parse(data, JOIN_SEP.charAt(0), minFields, mapper);
+        for (DelimitedParser.ParseError err : r.errors()) loadWarnings.add(file + " " + err);
+        if (!r.errors().isEmpty())
+            System.out.println("⚠️ " + file + ": 잘못된 줄 " + r.errors().size() + "개를 건너뜀");
+        return r.rows();
     }
 
-    private void saveExpenses() {
-        Path p = Paths.get(EXPENSE_FILE);
-        try (BufferedWriter bw = Files.newBufferedWriter(p, StandardCharsets.UTF_8)) {
-            for (Expense e : store.getExpenses()) {
-                bw.write(String.join(JOIN_SEP,
-                        nz(e.getTitle()),
-                        nz(e.getStatus()),
-                        String.valueOf(e.getPrice()),
-                        nz(e.getCategory()),
-                        e.getPurchaseDate().toString()
-                ));
-                bw.newLine();
+    /** 임시 파일에 다 쓰고 디스크에 내린 뒤 원자적으로 교체한다. 중간에 죽어도 원본은 그대로 남는다. */
+    private void writeAtomically(Path target, long seq, LineWriter body) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter bw = new BufferedWriter(
+                     new OutputStreamWriter(Channels.newOutputStream(ch), StandardCharsets.UTF_8))) {
+            bw.write(SEQ_HEADER + seq);
+            bw.newLine();
+            body.write(bw);
+            bw.flush();
+            ch.force(true);
+        }
+        try { Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING); }
+        catch (AtomicMoveNotSupportedException e) { Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING); }
+    }
+
+    @FunctionalInterface
+    private interface LineWriter { void write(BufferedWriter bw) throws IOException; }
+
+    /* ================= EXPENSES ================= */
+    private Path expenseDir() { return dataDir.resolve(EXPENSE_DIR); }
+
+    private Path shardFile(YearMonth ym, long gen) { return expenseDir().resolve(ym + "_" + gen + ".txt"); }
+
+    private record ShardEntry(YearMonth month, int count, long total, long gen, long maxId) {}
+
+    /** 조각 목록을 읽어 저장소에 붙인다(달별 건수/합계만, 행은 읽지 않음). 목록이 없으면 false. */
+    private boolean attachExpenseShards() {
+        Path manifest = expenseDir().resolve(MANIFEST_FILE);
+        if (!Files.exists(manifest)) return false;
+        byte[] data = readBytes(manifest, "소비 조각 목록 불러오기 실패");
+        expenseSeq = seqHeader(data);
+        Map<YearMonth, DataStore.MonthSummary> months = new TreeMap<>();
+        shardGens.clear();
+        shardGen = 0;
+        for (ShardEntry en : parseRows(EXPENSE_DIR + "/" + MANIFEST_FILE, data, 4, f -> new ShardEntry(
+                YearMonth.parse(f.text(0)), f.integer(1), Long.parseLong(f.text(2)), Long.parseLong(f.text(3)),
+                f.count() > 4 ? Long.parseLong(f.text(4)) : -1))) {
+            if (en.maxId() < 0) idsMissing = true; // id를 쓰기 전 목록 → 조각 행에도 id가 없다
+            months.put(en.month(), new DataStore.MonthSummary(en.count(), en.total(), Math.max(en.maxId(), 0)));
+            shardGens.put(en.month(), en.gen());
+            shardGen = Math.max(shardGen, en.gen());
+        }
+        store.attachExpenseShards(months, this::loadShard);
+        return true;
+    }
+
+    /** 저장소가 그 달을 처음 쓸 때 부른다. 다른 달의 행이 섞여 있으면(직접 고친 경우 등) 경고로 남기고 건너뛴다. */
+    private List<Expense> loadShard(YearMonth ym) {
+        return SHARD_LOAD.time(() -> {
+            Path p = shardFile(ym, shardGens.getOrDefault(ym, 0L));
+            String name = EXPENSE_DIR + "/" + p.getFileName();
+            if (!Files.exists(p)) loadWarnings.add(name + " 파일이 없어 빈 달로 읽음");
+            // id가 없는 행은 저장소가 새 id를 주고 그 달을 다시 쓰게 표시한다
+            return parseRows(name, readBytes(p, "소비 조각 불러오기 실패: " + name), 5, f -> {
+                Expense e = expense(f);
+                if (!YearMonth.from(e.getPurchaseDate()).equals(ym))
+                    throw new IllegalArgumentException(ym + " 조각에 다른 달 구매일: " + e.getPurchaseDate());
+                return e;
+            });
+        });
+    }
+
+    /** 예전 형식(expenses.txt 한 파일)을 읽는다. */
+    private void loadExpenses(List<Expense> out) {
+        out.clear();
+        byte[] data = readBytes(dataDir.resolve(EXPENSE_FILE), "소비 내역 불러오기 실패");
+        expenseSeq = seqHeader(data);
+        out.addAll(parseRows(EXPENSE_FILE, data, 5, FileManager::expense));
+    }
+
+    private static Expense expense(DelimitedParser.Fields f) {
+        Expense e = new Expense(f.text(0), f.text(1), f.integer(2), f.text(3), f.date(4));
+        e.setId(id(f, 5));
+        return e;
+    }
+
+    /** at번째 필드의 id (없으면 0 → 저장소가 새로 준다) */
+    private static long id(DelimitedParser.Fields f, int at) {
+        return f.count() > at && !f.text(at).isEmpty() ? Long.parseLong(f.text(at)) : 0;
+    }
+
+    /**
+     * 바뀐 달만 새 세대 파일로 쓰고 목록 파일을 원자적으로 바꿔 끼운 뒤(여기가 반영 시점),
+     * 목록에 없는 파일(옛 세대, 빈 달, 예전 expenses.txt)을 지운다. 중간에 멈추면 옛 목록과 옛 파일이 그대로 읽힌다.
+     */
+    private void saveExpenseShards(long seq, DataStore.ExpenseShardImage image) {
+        Path dir = expenseDir();
+        try {
+            Files.createDirectories(dir);
+            long gen = shardGen + 1;
+            Map<YearMonth, Long> gens = new HashMap<>(shardGens);
+            for (Map.Entry<YearMonth, List<Expense>> en : image.changed().entrySet()) {
+                if (en.getValue().isEmpty()) { gens.remove(en.getKey()); continue; }
+                writeAtomically(shardFile(en.getKey(), gen), seq, bw -> writeExpenses(bw, en.getValue()));
+                gens.put(en.getKey(), gen);
+                SHARDS_WRITTEN.increment();
             }
+            gens.keySet().retainAll(image.months().keySet());
+            writeAtomically(dir.resolve(MANIFEST_FILE), seq, bw -> {
+                for (Map.Entry<YearMonth, DataStore.MonthSummary> en : image.months().entrySet()) {
+                    bw.write(String.join(JOIN_SEP,
+                            en.getKey().toString(),
+                            String.valueOf(en.getValue().count()),
+                            String.valueOf(en.getValue().total()),
+                            String.valueOf(gens.get(en.getKey())),
+                            String.valueOf(en.getValue().maxId())
+                    ));
+                    bw.newLine();
+                }
+            });
+            shardGen = gen;
+            shardGens.putAll(gens);
+            shardGens.keySet().retainAll(gens.keySet());
+            deleteUnreferencedShards(dir, gens);
+            Files.deleteIfExists(dataDir.resolve(EXPENSE_FILE));
         } catch (IOException e) {
             throw new StorageException("소비 내역 저장 실패", e);
         }
     }
 
+    private void writeExpenses(BufferedWriter bw, List<Expense> rows) throws IOException {
+        for (Expense e : rows) {
+            bw.write(String.join(JOIN_SEP,
+                    nz(e.getTitle()),
+                    nz(e.getStatus()),
+                    String.valueOf(e.getPrice()),
+                    nz(e.getCategory()),
+                    e.getPurchaseDate().toString(),
+                    String.valueOf(e.getId())
+            ));
+            bw.newLine();
+        }
+    }
+
+    private void deleteUnreferencedShards(Path dir, Map<YearMonth, Long> gens) throws IOException {
+        Set<String> keep = new HashSet<>();
+        keep.add(MANIFEST_FILE);
+        gens.forEach((ym, g) -> keep.add(shardFile(ym, g).getFileName().toString()));
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator)
+                if (!keep.contains(p.getFileName().toString())) Files.deleteIfExists(p);
+        }
+    }
+
     /* ================= PROJECTS ================= */
     private void loadProjects() {
-        store.getProjects().clear();
-        Path p = Paths.get(PROJECT_FILE);
-        if (!Files.exists(p)) return;
-        try (BufferedReader br = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank()) continue;
-                String[] a = line.split(SEP, -1);
-                if (a.length < 5) continue;
-                try {
-                    store.getProjects().add(new Project(
-                            a[0], a[1], a[2], LocalDate.parse(a[3]), LocalDate.parse(a[4])
-                    ));
-                } catch (Exception ignore) {}
-            }
-        } catch (IOException e) {
-            throw new StorageException("프로젝트 불러오기 실패", e);
+        store.clearProjects();
+        byte[] data = readBytes(dataDir.resolve(PROJECT_FILE), "프로젝트 불러오기 실패");
+        projectSeq = seqHeader(data);
+        for (Project prj : parseRows(PROJECT_FILE, data, 5, f -> {
+            Project p = new Project(f.text(0), f.text(1), f.text(2), f.date(3), f.date(4));
+            p.setId(id(f, 5));
+            return p;
+        })) {
+            if (prj.getId() == 0) idsMissing = true;
+            store.addProject(prj);
         }
     }
 
-    private void saveProjects() {
-        Path p = Paths.get(PROJECT_FILE);
-        try (BufferedWriter bw = Files.newBufferedWriter(p, StandardCharsets.UTF_8)) {
-            for (Project prj : store.getProjects()) {
-                bw.write(String.join(JOIN_SEP,
-                        nz(prj.getTitle()),
-                        nz(prj.getStatus()),
-                        nz(prj.getOwner()),
-                        prj.getStartDate().toString(),
-                        prj.getDueDate().toString()
-                ));
-                bw.newLine();
-            }
+    private void saveProjects(long seq, List<Project> rows) {
+        Path p = dataDir.resolve(PROJECT_FILE);
+        try {
+            writeAtomically(p, seq, bw -> {
+                for (Project prj : rows) {
+                    bw.write(String.join(JOIN_SEP,
+                            nz(prj.getTitle()),
+                            nz(prj.getStatus()),
+                            nz(prj.getOwner()),
+                            prj.getStartDate().toString(),
+                            prj.getDueDate().toString(),
+                            String.valueOf(prj.getId())
+                    ));
+                    bw.newLine();
+                }
+            });
         } catch (IOException e) {
             throw new StorageException("프로젝트 저장 실패", e);
         }
@@ -132,42 +544,37 @@ public class FileManager {
 
     /* ================= SCHEDULES ================= */
     private void loadSchedules() {
-        store.getSchedules().clear();
-        Path p = Paths.get(SCHEDULE_FILE);
-        if (!Files.exists(p)) return;
-        try (BufferedReader br = Files.newBufferedReader(p, StandardCharsets.UTF_8)) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank()) continue;
-                String[] a = line.split(SEP, -1);
-                if (a.length < 3) continue;
-                try {
-                    Schedule s = new Schedule(a[0], LocalDate.parse(a[1]), a[2]);
-                    store.getSchedules().put(s.getName(), s);
-                } catch (Exception ignore) {}
-            }
-        } catch (IOException e) {
-            throw new StorageException("일정 불러오기 실패", e);
+        store.clearSchedules();
+        byte[] data = readBytes(dataDir.resolve(SCHEDULE_FILE), "일정 불러오기 실패");
+        scheduleSeq = seqHeader(data);
+        for (Schedule sc : parseRows(SCHEDULE_FILE, data, 3, f -> new Schedule(
+                f.text(0), f.date(1), f.text(2), f.count() > 3 ? Recurrence.parse(f.text(3)) : null))) {
+            store.putSchedule(sc.getName(), sc);
         }
     }
 
-    private void saveSchedules() {
-        Path p = Paths.get(SCHEDULE_FILE);
-        try (BufferedWriter bw = Files.newBufferedWriter(p, StandardCharsets.UTF_8)) {
-            for (Map.Entry<String, Schedule> ent : store.getSchedules().entrySet()) {
-                Schedule s = ent.getValue();
-                bw.write(String.join(JOIN_SEP,
-                        nz(s.getName()),
-                        s.getDate().toString(),
-                        nz(s.getMemo())
-                ));
-                bw.newLine();
-            }
+    private void saveSchedules(long seq, List<Schedule> rows) {
+        Path p = dataDir.resolve(SCHEDULE_FILE);
+        try {
+            writeAtomically(p, seq, bw -> {
+                for (Schedule s : rows) {
+                    bw.write(String.join(JOIN_SEP,
+                            nz(s.getName()),
+                            s.getDate().toString(),
+                            nz(s.getMemo()),
+                            rule(s)
+                    ));
+                    bw.newLine();
+                }
+            });
         } catch (IOException e) {
             throw new StorageException("일정 저장 실패", e);
         }
     }
 
 
-    private String nz(String s) { return s == null ? "" : s; }
+    private static String nz(String s) { return s == null ? "" : s; }
+
+    /** 반복 규칙 글자 (한 번짜리면 빈 문자열) */
+    private static String rule(Schedule s) { return s.getRecurrence() == null ? "" : s.getRecurrence().toString(); }
 }
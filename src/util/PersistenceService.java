@@ -0,0 +1,122 @@
+package util;
+
+import exceptions.StorageException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * 전용 쓰기 스레드 하나로 저장을 처리한다.
+ * 호출 스레드(EDT)는 변경을 큐에 넣기만 하고, 쓰기 스레드가 몰려 온 변경을 모아 저널에 한 번에 쓴다.
+ * 압축(전체 저장)에 쓸 데이터는 데이터를 고치는 스레드에서 떠 두고(capture), 쓰기만 백그라운드에서 한다.
+ * 쓰기 오류는 onError로 비동기 전달한다.
+ */
+public class PersistenceService implements AutoCloseable {
+
+    private static final int COMPACT_EVERY = 500; // 이만큼 기록되면 베이스 파일로 압축
+
+    private sealed interface Task permits Append, Compact, Barrier, Stop {}
+    private record Append(ChangeJournal.Change change) implements Task {}
+    private record Compact(FileManager.Image image, CompletableFuture<Void> done) implements Task {}
+    private record Barrier(CompletableFuture<Void> done) implements Task {}
+    private record Stop() implements Task {}
+
+    private final FileManager fileManager;
+    private final Consumer<RuntimeException> onError;
+    private final BlockingQueue<Task> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private int sinceCompact; // 데이터를 고치는 스레드에서만 접근
+    private volatile boolean closed;
+
+    public PersistenceService(FileManager fileManager, Consumer<RuntimeException> onError) {
+        this.fileManager = fileManager;
+        this.onError = onError;
+        this.sinceCompact = fileManager.journalSize();
+        this.writer = new Thread(this::runWriter, "persistence-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /** 변경 1건을 기록 대기열에 넣는다. 디스크를 기다리지 않는다. */
+    public void record(ChangeJournal.Change change) {
+        if (closed) throw new StorageException("저장 서비스가 이미 종료되었습니다.", null);
+        queue.add(new Append(change));
+        if (++sinceCompact >= COMPACT_EVERY) requestSave();
+    }
+
+    /**
+     * 전체 저장을 예약한다. 지금 데이터를 떠 둔다.
+     * 아직 쓰이지 않은 변경은 그 안에 포함되지만 버리지 않고 먼저 저널에 쓴다. 압축이 (일부라도) 실패하면
+     * 그 변경은 저널에만 남아 있기 때문이다. 성공하면 압축이 저널을 비운다.
+     * 반드시 데이터를 고치는 스레드에서 호출한다.
+     */
+    public CompletableFuture<Void> requestSave() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        FileManager.Image image = fileManager.capture();
+        queue.add(new Compact(image, done));
+        sinceCompact = 0;
+        return done;
+    }
+
+    /** 지금까지 넣은 변경이 모두 디스크에 내려가면 완료되는 future */
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        queue.add(new Barrier(done));
+        return done;
+    }
+
+    /** 남은 변경을 전체 저장으로 마무리하고 쓰기 스레드를 멈춘다(종료 버튼용, 완료까지 기다림). */
+    @Override
+    public void close() {
+        if (closed) return;
+        CompletableFuture<Void> saved = requestSave();
+        closed = true;
+        queue.add(new Stop());
+        try {
+            saved.join();
+            writer.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        List<Task> batch = new ArrayList<>();
+        List<ChangeJournal.Change> changes = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch);
+            for (Task t : batch) {
+                // 압축/배리어 앞의 변경은 먼저 써서 순서를 지킨다
+                if (t instanceof Append a) { changes.add(a.change()); continue; }
+                writeChanges(changes);
+                switch (t) {
+                    case Compact c -> {
+                        try { fileManager.write(c.image()); c.done().complete(null); }
+                        catch (RuntimeException e) { c.done().completeExceptionally(e); onError.accept(e); }
+                    }
+                    case Barrier b -> b.done().complete(null);
+                    case Stop s -> { fileManager.closeJournal(); return; }
+                    default -> { }
+                }
+            }
+            writeChanges(changes);
+            batch.clear();
+        }
+    }
+
+    private void writeChanges(List<ChangeJournal.Change> changes) {
+        if (changes.isEmpty()) return;
+        try { fileManager.append(changes); }
+        catch (RuntimeException e) { onError.accept(e); }
+        finally { changes.clear(); }
+    }
+}